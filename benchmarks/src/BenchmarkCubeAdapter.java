@@ -0,0 +1,71 @@
+import benchmarks.BenchmarkCube;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Gives the benchmarks in the benchmarks package access to the cubes and solvers of the default package.
+ */
+public class BenchmarkCubeAdapter implements BenchmarkCube {
+    private static final RubiksCube.Move[] ALL_MOVES = RubiksCube.Move.values();
+
+    private final RubiksCube cube;
+
+    // Constructor applying a canonical scramble, so that no move undoes the previous one
+    public BenchmarkCubeAdapter(String representation, long seed, int scrambleLength) {
+        cube = switch (representation) {
+            case "RubiksCube1D" -> new RubiksCube1D();
+            case "RubiksCube3D" -> new RubiksCube3D();
+            case "RubiksCubeBitboard" -> new RubiksCubeBitboard();
+            case "RubiksCubePacked" -> new RubiksCubePacked();
+            default -> throw new IllegalArgumentException("Unknown representation: " + representation);
+        };
+        Random random = new Random(seed);
+        RubiksCube.Move lastMove = null;
+        for (int i = 0; i < scrambleLength; i++) {
+            RubiksCube.Move[] successors = MoveGenerator.getSuccessors(lastMove);
+            lastMove = successors[random.nextInt(successors.length)];
+            cube.performMove(lastMove);
+        }
+    }
+
+    @Override
+    public void performMove(int move) {
+        cube.performMove(ALL_MOVES[move]);
+    }
+
+    @Override
+    public boolean isSolved() {
+        return cube.isSolved();
+    }
+
+    @Override
+    public Object cloneCube() {
+        return cube.clone();
+    }
+
+    @Override
+    public void copyFrom(BenchmarkCube other) {
+        cube.copyFrom(((BenchmarkCubeAdapter) other).cube);
+    }
+
+    @Override
+    public boolean equalsCube(BenchmarkCube other) {
+        return cube.equals(((BenchmarkCubeAdapter) other).cube);
+    }
+
+    @Override
+    public int hashCodeCube() {
+        return cube.hashCode();
+    }
+
+    @Override
+    public List<RubiksCube.Move> solve(String solver, int maxSearchDepth) {
+        return switch (solver) {
+            case "DFS" -> new DFSSolver<>(cube, maxSearchDepth).solve();
+            case "BFS" -> new BFSSolver<>(cube).solve();
+            case "IDDFS" -> new IDDFSSolver<RubiksCube, Object>(cube, maxSearchDepth).solve();
+            default -> throw new IllegalArgumentException("Unknown solver: " + solver);
+        };
+    }
+}
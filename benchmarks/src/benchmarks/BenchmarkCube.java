@@ -0,0 +1,56 @@
+package benchmarks;
+
+import java.util.List;
+
+/**
+ * The cube operations measured by the benchmarks.
+ * JMH only accepts benchmarks in a named package, while the cubes and solvers live in the default package,
+ * which named packages cannot import. BenchmarkCubeAdapter in the default package implements this interface
+ * and is loaded by name once during setup; the call through the interface is monomorphic and gets inlined.
+ */
+public interface BenchmarkCube {
+    // Names of RubiksCube.Move in declaration order, so that a move is passed around as its ordinal
+    List<String> MOVES = List.of("L", "LPRIME", "L2", "R", "RPRIME", "R2", "F", "FPRIME", "F2",
+            "B", "BPRIME", "B2", "U", "UPRIME", "U2", "D", "DPRIME", "D2");
+
+    long SEED = 20240917L;
+
+    void performMove(int move);
+
+    boolean isSolved();
+
+    Object cloneCube();
+
+    void copyFrom(BenchmarkCube other);
+
+    boolean equalsCube(BenchmarkCube other);
+
+    int hashCodeCube();
+
+    /**
+     * Solves the cube with one of the uninformed solvers.
+     *
+     * @param solver         DFS, BFS or IDDFS.
+     * @param maxSearchDepth The depth limit of DFS and IDDFS.
+     * @return The solution.
+     */
+    List<?> solve(String solver, int maxSearchDepth);
+
+    /**
+     * Creates a cube of the given representation, scrambled with a canonical fixed-seed scramble
+     * so every run measures exactly the same states.
+     *
+     * @param representation The simple class name, e.g. RubiksCube3D.
+     * @param scrambleLength The number of scramble moves, 0 for a solved cube.
+     * @return The cube.
+     */
+    static BenchmarkCube create(String representation, int scrambleLength) {
+        try {
+            return (BenchmarkCube) Class.forName("BenchmarkCubeAdapter")
+                    .getConstructor(String.class, long.class, int.class)
+                    .newInstance(representation, SEED, scrambleLength);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create " + representation, e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the operations the solvers call on every node besides moves:
+ * the solved check, copying a cube (clone or copyFrom), and the equals/hashCode used by hash-based visited sets.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CubeOperationsBenchmark {
+    @Param({"RubiksCube1D", "RubiksCube3D", "RubiksCubeBitboard", "RubiksCubePacked"})
+    public String representation;
+
+    private BenchmarkCube solved;
+    private BenchmarkCube scrambled;
+    private BenchmarkCube scrambledCopy;
+    private BenchmarkCube target;
+
+    @Setup
+    public void setUp() {
+        solved = BenchmarkCube.create(representation, 0);
+        scrambled = BenchmarkCube.create(representation, 20);
+        scrambledCopy = BenchmarkCube.create(representation, 20);
+        target = BenchmarkCube.create(representation, 0);
+    }
+
+    // The solved check can stop at the first wrong sticker, so both outcomes are measured
+    @Benchmark
+    public boolean isSolvedOnSolved() {
+        return solved.isSolved();
+    }
+
+    @Benchmark
+    public boolean isSolvedOnScrambled() {
+        return scrambled.isSolved();
+    }
+
+    @Benchmark
+    public Object cloneCube() {
+        return scrambled.cloneCube();
+    }
+
+    // The allocation-free alternative to clone used by the solvers to recycle cubes
+    @Benchmark
+    public BenchmarkCube copyFrom() {
+        target.copyFrom(scrambled);
+        return target;
+    }
+
+    // Equal states in different objects, so the comparison has to look at every sticker
+    @Benchmark
+    public boolean equalsCube() {
+        return scrambled.equalsCube(scrambledCopy);
+    }
+
+    @Benchmark
+    public int hashCodeCube() {
+        return scrambled.hashCodeCube();
+    }
+}
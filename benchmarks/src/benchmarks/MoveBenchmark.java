@@ -0,0 +1,41 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a single move, for each of the 18 moves and every representation.
+ * The cube keeps turning between invocations, which does not matter since a move costs the same on any state.
+ * Moves are expected to be allocation-free: run through BenchmarkRunner, gc.alloc.rate.norm should read 0 B/op
+ * for every representation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveBenchmark {
+    @Param({"RubiksCube1D", "RubiksCube3D", "RubiksCubeBitboard", "RubiksCubePacked"})
+    public String representation;
+
+    @Param({"L", "LPRIME", "L2", "R", "RPRIME", "R2", "F", "FPRIME", "F2",
+            "B", "BPRIME", "B2", "U", "UPRIME", "U2", "D", "DPRIME", "D2"})
+    public String move;
+
+    private BenchmarkCube cube;
+    private int moveIndex;
+
+    @Setup
+    public void setUp() {
+        cube = BenchmarkCube.create(representation, 20);
+        moveIndex = BenchmarkCube.MOVES.indexOf(move);
+    }
+
+    @Benchmark
+    public BenchmarkCube performMove() {
+        cube.performMove(moveIndex);
+        return cube;
+    }
+}
@@ -0,0 +1,39 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end solve of a fixed-seed scramble, for each uninformed solver, representation and scramble depth.
+ * Every invocation gets a freshly scrambled cube, since the solvers leave their cube solved.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SolverBenchmark {
+    @Param({"DFS", "BFS", "IDDFS"})
+    public String solver;
+
+    @Param({"RubiksCube1D", "RubiksCube3D", "RubiksCubeBitboard", "RubiksCubePacked"})
+    public String representation;
+
+    @Param({"3", "4", "5"})
+    public int depth;
+
+    private BenchmarkCube cube;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        cube = BenchmarkCube.create(representation, depth);
+    }
+
+    @Benchmark
+    public List<?> solve() {
+        return cube.solve(solver, depth);
+    }
+}
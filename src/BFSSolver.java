@@ -4,62 +4,112 @@ import java.util.*;
 // Typename H: Corresponding Hash function (could be used in more advanced methods)
 
 public class BFSSolver<T extends RubiksCube> {
+    // Frontier entries pack the path from the start, 5 bits per move
+    private static final int MOVE_BITS = 5;
+    private static final int MAX_DEPTH = Long.SIZE / MOVE_BITS;
+    private static final RubiksCube.Move[] ALL_MOVES = RubiksCube.Move.values();
+
     private final List<RubiksCube.Move> moves;
-    private final Map<T, Boolean> visited;
-    private final Map<T, RubiksCube.Move> moveDone;
+    private final StateTable moveDone;
+    private final MoveGenerator moveGenerator;
+    private SolverMetrics.Recorder recorder = new SolverMetrics.Recorder(null);
     private T rubiksCube;
 
     // Constructor
     public BFSSolver(T rubiksCube) {
+        this(rubiksCube, new MoveGenerator());
+    }
+
+    // Constructor with a shared move generator, e.g. to collect its pruning count
+    public BFSSolver(T rubiksCube, MoveGenerator moveGenerator) {
         this.rubiksCube = rubiksCube;
+        this.moveGenerator = moveGenerator;
         this.moves = new ArrayList<>();
-        this.visited = new HashMap<>();
-        this.moveDone = new HashMap<>();
+        this.moveDone = new StateTable();
     }
 
-    // BFS method to find the solution and return the solved Rubik's Cube
-    private T bfs() {
-        Queue<T> queue = new LinkedList<>();
-        queue.add(rubiksCube);
-        visited.put(rubiksCube, true);
+    // Counts nodes and duplicates into the metrics and reports every level with its frontier and visited size
+    public void setMetrics(SolverMetrics metrics) {
+        this.recorder = new SolverMetrics.Recorder(metrics);
+    }
 
-        while (!queue.isEmpty()) {
-            T node = queue.poll();
-            if (node.isSolved()) {
-                return node;
-            }
-            for (int i = 0; i < 18; i++) {
-                RubiksCube.Move currMove = RubiksCube.Move.values()[i];
-                node.performMove(currMove);
-                if (!visited.containsKey(node)) {
-                    visited.put(node, true);
-                    moveDone.put(node, currMove);
-                    queue.add(createCopy(node)); // Create a copy instead of casting
+    private static RubiksCube.Move getMove(long path, int index) {
+        return ALL_MOVES[(int) (path >>> (MOVE_BITS * index)) & ((1 << MOVE_BITS) - 1)];
+    }
+
+    // BFS method to find the solution, level by level, leaving the cube solved when one is found.
+    // Instead of storing a cube per frontier node, the one cube is reset to a snapshot of the start
+    // and the node's path is replayed on it, so the expansion does not allocate.
+    private boolean bfs() {
+        moveDone.add(rubiksCube.getCornerKey(), rubiksCube.getEdgeKey(), null);
+        recorder.generate(0);
+        recorder.solvedCheck();
+        if (rubiksCube.isSolved()) {
+            return true;
+        }
+        RubiksCube start = rubiksCube.clone();
+        long[] frontier = {0L};
+        int frontierSize = 1;
+        for (int depth = 0; depth < MAX_DEPTH && frontierSize > 0; depth++) {
+            long[] next = new long[Math.max(16, frontierSize * 13)];
+            int nextSize = 0;
+            recorder.startIteration();
+            for (int i = 0; i < frontierSize; i++) {
+                if (Thread.currentThread().isInterrupted()) {
+                    recorder.flush();
+                    rubiksCube.copyFrom(start);
+                    return false;
+                }
+                long path = frontier[i];
+                rubiksCube.copyFrom(start);
+                for (int index = 0; index < depth; index++) {
+                    rubiksCube.performMove(getMove(path, index));
+                }
+                RubiksCube.Move lastMove = depth == 0 ? null : getMove(path, depth - 1);
+                RubiksCube.Move[] successors = moveGenerator.next(lastMove);
+                recorder.expand(depth, successors.length);
+                for (RubiksCube.Move currMove : successors) {
+                    rubiksCube.performMove(currMove);
+                    recorder.generate(depth + 1);
+                    if (moveDone.add(rubiksCube.getCornerKey(), rubiksCube.getEdgeKey(), currMove)) {
+                        recorder.solvedCheck();
+                        if (rubiksCube.isSolved()) {
+                            recorder.endIteration("BFSSolver", depth + 1);
+                            return true;
+                        }
+                        if (nextSize == next.length) next = Arrays.copyOf(next, nextSize * 2);
+                        next[nextSize++] = path | (long) currMove.ordinal() << (MOVE_BITS * depth);
+                    } else {
+                        recorder.duplicate();
+                    }
+                    rubiksCube.invert(currMove);
                 }
-                node.invert(currMove);
             }
+            frontier = next;
+            frontierSize = nextSize;
+            recorder.frontier(frontierSize, moveDone.size());
+            recorder.endIteration("BFSSolver", depth + 1);
         }
-        return rubiksCube; // If no solution found, return the original cube
-    }
-
-    // Helper method to create a copy of a RubiksCube instance
-    @SuppressWarnings("unchecked")
-    private T createCopy(T original) {
-        return (T) original.clone(); // Safe cast if clone() method is properly overridden
+        rubiksCube.copyFrom(start);
+        return false;
     }
 
     // Solve method to initiate BFS and return the list of moves to solve the cube
     public List<RubiksCube.Move> solve() {
-        T solvedCube = bfs();
-        assert solvedCube.isSolved();
-        T currCube = createCopy(solvedCube); // Start from the solved cube
-        while (!currCube.equals(rubiksCube)) {
-            RubiksCube.Move currMove = moveDone.get(currCube);
+        if (!bfs()) {
+            return moves;
+        }
+        // Walk back from the solved cube to the start, then replay the moves to leave the cube solved
+        RubiksCube.Move currMove = moveDone.get(rubiksCube.getCornerKey(), rubiksCube.getEdgeKey());
+        while (currMove != null) {
             moves.add(currMove);
-            currCube.invert(currMove);
+            rubiksCube.invert(currMove);
+            currMove = moveDone.get(rubiksCube.getCornerKey(), rubiksCube.getEdgeKey());
         }
-        rubiksCube = solvedCube;
         Collections.reverse(moves);
+        for (RubiksCube.Move move : moves) {
+            rubiksCube.performMove(move);
+        }
         return moves;
     }
 }
@@ -0,0 +1,220 @@
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Typename T: RubiksCube Representation used (3D, 1D, Bitboard, Packed)
+// Solves a stream of scrambles on an executor, one fresh cube per scramble.
+// At most maxInFlight scrambles are read ahead of the results handed back, so the heap stays bounded
+// however long the input is. Results come back in input order or in completion order.
+
+public class BatchSolver<T extends RubiksCube> {
+    /**
+     * Solver run on each scrambled cube. It should leave the cube solved when it finds a solution and
+     * return early once its thread is interrupted, which is how the time budget is enforced.
+     */
+    @FunctionalInterface
+    public interface Strategy<T extends RubiksCube> {
+        List<RubiksCube.Move> solve(T rubiksCube, int maxSearchDepth);
+    }
+
+    /**
+     * Outcome of one solve.
+     */
+    public enum Status {
+        SOLVED, NOT_FOUND, TIMED_OUT, FAILED
+    }
+
+    /**
+     * Result of one scramble, index is its position in the input stream.
+     */
+    public record Result(long index, List<RubiksCube.Move> scramble, List<RubiksCube.Move> solution,
+                         Status status, long nanos) {
+    }
+
+    private final Supplier<T> cubeFactory;
+    private final ExecutorService executor;
+    private final int maxSearchDepth;
+    private final Duration timeBudget;
+    private Strategy<T> strategy = (cube, depth) -> new IDDFSSolver<T, Object>(cube, depth).solve();
+    private int maxInFlight = 1024;
+    private boolean ordered = true;
+
+    // Constructor, timeBudget may be null for no time limit. The executor is not shut down by the batch,
+    // use Executors.newVirtualThreadPerTaskExecutor() for virtual threads or a fixed pool for platform threads.
+    public BatchSolver(Supplier<T> cubeFactory, ExecutorService executor, int maxSearchDepth, Duration timeBudget) {
+        this.cubeFactory = cubeFactory;
+        this.executor = executor;
+        this.maxSearchDepth = maxSearchDepth;
+        this.timeBudget = timeBudget;
+    }
+
+    public void setStrategy(Strategy<T> strategy) {
+        this.strategy = strategy;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) throw new IllegalArgumentException("maxInFlight must be positive");
+        this.maxInFlight = maxInFlight;
+    }
+
+    // True to hand results back in input order, false to hand them back as soon as they complete
+    public void setOrdered(boolean ordered) {
+        this.ordered = ordered;
+    }
+
+    // Hands results to the consumer one at a time, reordering them when asked to
+    private final class Emitter {
+        private final Consumer<Result> results;
+        private final Semaphore inFlight;
+        private final Map<Long, Result> pending = new HashMap<>();
+        private long nextIndex;
+        private Throwable failure;
+
+        Emitter(Consumer<Result> results, Semaphore inFlight) {
+            this.results = results;
+            this.inFlight = inFlight;
+        }
+
+        synchronized void emit(Result result) {
+            if (!ordered) {
+                deliver(result);
+                return;
+            }
+            // Permits are only given back once a result leaves the buffer, which bounds its size by maxInFlight
+            pending.put(result.index(), result);
+            Result next;
+            while ((next = pending.remove(nextIndex)) != null) {
+                nextIndex++;
+                deliver(next);
+            }
+        }
+
+        // Once the consumer has thrown, the remaining results are dropped but still give their permits back
+        private void deliver(Result result) {
+            try {
+                if (failure == null) results.accept(result);
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                inFlight.release();
+            }
+        }
+
+        synchronized Throwable getFailure() {
+            return failure;
+        }
+    }
+
+    /**
+     * Solves every scramble of the stream, blocking until all results have been handed to the consumer.
+     * The stream is read lazily and the consumer is never called concurrently.
+     *
+     * @param scrambles The scrambles, each one a list of moves applied to a solved cube.
+     * @param results   Receives one result per scramble.
+     * @throws InterruptedException If the calling thread is interrupted while waiting for results.
+     * @throws RuntimeException      The first exception thrown by the consumer, after which no more scrambles
+     *                               are read and the ones in flight are finished without being handed back.
+     */
+    public void solveAll(Stream<List<RubiksCube.Move>> scrambles, Consumer<Result> results) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        Emitter emitter = new Emitter(results, inFlight);
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "batch-solver-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Iterator<List<RubiksCube.Move>> iterator = scrambles.iterator();
+            for (long index = 0; iterator.hasNext() && emitter.getFailure() == null; index++) {
+                inFlight.acquire();
+                long scrambleIndex = index;
+                List<RubiksCube.Move> scramble = iterator.next();
+                try {
+                    executor.execute(() -> emitter.emit(solveSafely(scrambleIndex, scramble, timer)));
+                } catch (RuntimeException e) {
+                    inFlight.release();
+                    throw e;
+                }
+            }
+            // Every permit is back once the last result has been delivered
+            inFlight.acquire(maxInFlight);
+            inFlight.release(maxInFlight);
+            Throwable failure = emitter.getFailure();
+            if (failure instanceof RuntimeException e) throw e;
+            if (failure instanceof Error e) throw e;
+            if (failure != null) throw new IllegalStateException("Result consumer failed", failure);
+        } finally {
+            timer.shutdownNow();
+        }
+    }
+
+    // Every scramble must come back as a result, or its permit would never be released and solveAll would hang
+    private Result solveSafely(long index, List<RubiksCube.Move> scramble, ScheduledExecutorService timer) {
+        long start = System.nanoTime();
+        Deadline deadline = null;
+        try {
+            if (timeBudget != null) deadline = new Deadline(Thread.currentThread(), timer, timeBudget);
+            T cube = cubeFactory.get();
+            for (RubiksCube.Move move : scramble) {
+                cube.performMove(move);
+            }
+            List<RubiksCube.Move> solution = strategy.solve(cube, maxSearchDepth);
+            Status status;
+            if (cube.isSolved()) {
+                status = Status.SOLVED;
+            } else {
+                status = deadline != null && deadline.isExpired() ? Status.TIMED_OUT : Status.NOT_FOUND;
+                solution = List.of();
+            }
+            return new Result(index, scramble, new ArrayList<>(solution), status, System.nanoTime() - start);
+        } catch (Throwable e) {
+            // Running out of memory or stack, or an ExceptionInInitializerError from the static tables of a solver,
+            // only fails this scramble, not the batch
+            return new Result(index, scramble, List.of(), Status.FAILED, System.nanoTime() - start);
+        } finally {
+            if (deadline != null) deadline.disarm();
+        }
+    }
+
+    // Interrupts the solving thread once the time budget is spent, unless the solve finished first
+    private static final class Deadline {
+        private final Thread thread;
+        private final ScheduledFuture<?> future;
+        private boolean done;
+        private boolean expired;
+
+        Deadline(Thread thread, ScheduledExecutorService timer, Duration budget) {
+            this.thread = thread;
+            this.future = timer.schedule(this::expire, budget.toNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        private synchronized void expire() {
+            if (done) return;
+            expired = true;
+            thread.interrupt();
+        }
+
+        synchronized boolean isExpired() {
+            return expired;
+        }
+
+        // Pooled threads run other scrambles next, so a pending interrupt must not leak into them
+        synchronized void disarm() {
+            done = true;
+            future.cancel(false);
+            Thread.interrupted();
+        }
+    }
+}
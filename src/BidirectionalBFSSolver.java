@@ -0,0 +1,163 @@
+import java.util.*;
+
+// Typename T: RubiksCube Representation used (3D, 1D, Bitboard, Packed)
+// Breadth-first search from both the scramble and the solved state, meeting in the middle.
+// Each side only goes about half as deep, so a solution of depth d costs about 2 * 13^(d/2) states instead of 13^d.
+
+public class BidirectionalBFSSolver<T extends RubiksCube> {
+    // Frontier entries pack the path from the side's start, 5 bits per move
+    private static final int MOVE_BITS = 5;
+    private static final int MAX_DEPTH = Long.SIZE / MOVE_BITS;
+    private static final RubiksCube.Move[] ALL_MOVES = RubiksCube.Move.values();
+
+    private final List<RubiksCube.Move> moves;
+    private final MoveGenerator moveGenerator;
+    private final Side forward;
+    private final Side backward;
+    private SolverMetrics.Recorder recorder = new SolverMetrics.Recorder(null);
+    private T rubiksCube;
+
+    // One direction of the search: its cube, a snapshot of where it started, the moves that reached each state,
+    // and the current level
+    private static final class Side {
+        final RubiksCube cube;
+        final RubiksCube start;
+        final StateTable moveDone = new StateTable();
+        long[] frontier = {0L};
+        int frontierSize = 1;
+        int depth;
+
+        Side(RubiksCube cube) {
+            this.cube = cube;
+            this.start = cube.clone();
+            moveDone.add(cube.getCornerKey(), cube.getEdgeKey(), null);
+        }
+    }
+
+    // Constructor, solvedCube is a solved cube of the same representation that the backward search starts from
+    public BidirectionalBFSSolver(T rubiksCube, T solvedCube) {
+        this(rubiksCube, solvedCube, new MoveGenerator());
+    }
+
+    // Constructor with a shared move generator, e.g. to collect its pruning count
+    public BidirectionalBFSSolver(T rubiksCube, T solvedCube, MoveGenerator moveGenerator) {
+        this.rubiksCube = rubiksCube;
+        this.moveGenerator = moveGenerator;
+        this.moves = new ArrayList<>();
+        this.forward = new Side(rubiksCube);
+        this.backward = new Side(solvedCube);
+    }
+
+    // Counts nodes and duplicates into the metrics and reports every level of either side, with both sides'
+    // frontiers and visited states added up
+    public void setMetrics(SolverMetrics metrics) {
+        this.recorder = new SolverMetrics.Recorder(metrics);
+    }
+
+    private static RubiksCube.Move getMove(long path, int index) {
+        return ALL_MOVES[(int) (path >>> (MOVE_BITS * index)) & ((1 << MOVE_BITS) - 1)];
+    }
+
+    // Expands one full level of a side. Returns true as soon as a new state is already known to the other side,
+    // leaving the side's cube on that meeting state. An interrupted thread gives up in the middle of the level.
+    private boolean expand(Side side, Side other) {
+        long[] next = new long[Math.max(16, side.frontierSize * 13)];
+        int nextSize = 0;
+        RubiksCube cube = side.cube;
+        recorder.startIteration();
+        for (int i = 0; i < side.frontierSize; i++) {
+            if (Thread.currentThread().isInterrupted()) {
+                recorder.flush();
+                return false;
+            }
+            long path = side.frontier[i];
+            cube.copyFrom(side.start);
+            for (int index = 0; index < side.depth; index++) {
+                cube.performMove(getMove(path, index));
+            }
+            RubiksCube.Move lastMove = side.depth == 0 ? null : getMove(path, side.depth - 1);
+            RubiksCube.Move[] successors = moveGenerator.next(lastMove);
+            recorder.expand(side.depth, successors.length);
+            for (RubiksCube.Move currMove : successors) {
+                cube.performMove(currMove);
+                recorder.generate(side.depth + 1);
+                long cornerKey = cube.getCornerKey();
+                long edgeKey = cube.getEdgeKey();
+                if (side.moveDone.add(cornerKey, edgeKey, currMove)) {
+                    if (other.moveDone.contains(cornerKey, edgeKey)) {
+                        recorder.endIteration(getName(side), side.depth + 1);
+                        return true;
+                    }
+                    if (nextSize == next.length) next = Arrays.copyOf(next, nextSize * 2);
+                    next[nextSize++] = path | (long) currMove.ordinal() << (MOVE_BITS * side.depth);
+                } else {
+                    recorder.duplicate();
+                }
+                cube.invert(currMove);
+            }
+        }
+        side.frontier = next;
+        side.frontierSize = nextSize;
+        side.depth++;
+        recorder.frontier(forward.frontierSize + backward.frontierSize,
+                forward.moveDone.size() + backward.moveDone.size());
+        recorder.endIteration(getName(side), side.depth);
+        return false;
+    }
+
+    private String getName(Side side) {
+        return side == forward ? "BidirectionalBFSSolver forward" : "BidirectionalBFSSolver backward";
+    }
+
+    // Alternates between the sides, always growing the smaller frontier, and returns the cube left on the meeting state,
+    // or null if there is none within MAX_DEPTH or the thread was interrupted
+    private RubiksCube search() {
+        if (backward.moveDone.contains(rubiksCube.getCornerKey(), rubiksCube.getEdgeKey())) {
+            return rubiksCube;
+        }
+        while (forward.frontierSize > 0 && backward.frontierSize > 0
+                && forward.depth < MAX_DEPTH && backward.depth < MAX_DEPTH
+                && !Thread.currentThread().isInterrupted()) {
+            Side side = forward.frontierSize <= backward.frontierSize ? forward : backward;
+            Side other = side == forward ? backward : forward;
+            if (expand(side, other)) {
+                return side.cube;
+            }
+        }
+        forward.cube.copyFrom(forward.start);
+        return null;
+    }
+
+    // Solve method to initiate the search and return the list of moves to solve the cube
+    public List<RubiksCube.Move> solve() {
+        RubiksCube meeting = search();
+        if (meeting == null) {
+            return moves;
+        }
+        // Forward half: walk the forward moves back to the scramble, then replay them to return to the meeting state
+        RubiksCube.Move currMove = forward.moveDone.get(meeting.getCornerKey(), meeting.getEdgeKey());
+        while (currMove != null) {
+            moves.add(currMove);
+            meeting.invert(currMove);
+            currMove = forward.moveDone.get(meeting.getCornerKey(), meeting.getEdgeKey());
+        }
+        Collections.reverse(moves);
+        for (RubiksCube.Move move : moves) {
+            meeting.performMove(move);
+        }
+        // Backward half: undoing the moves that led from the solved state here solves the cube
+        currMove = backward.moveDone.get(meeting.getCornerKey(), meeting.getEdgeKey());
+        while (currMove != null) {
+            moves.add(RubiksCube.getInverse(currMove));
+            meeting.invert(currMove);
+            currMove = backward.moveDone.get(meeting.getCornerKey(), meeting.getEdgeKey());
+        }
+        if (meeting != rubiksCube) {
+            rubiksCube.copyFrom(forward.start);
+            for (RubiksCube.Move move : moves) {
+                rubiksCube.performMove(move);
+            }
+        }
+        return moves;
+    }
+}
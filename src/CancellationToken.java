@@ -0,0 +1,67 @@
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Cooperative cancellation for the solvers: cancelled explicitly, or once its deadline passes. Solvers poll it
+ * every few thousand nodes instead of every node, so polling costs nothing measurable, and a cancelled solver
+ * stops within microseconds and returns the best it has so far instead of throwing.
+ * <p>
+ * Interrupting the solving thread still stops a solve too, which is how BatchSolver enforces its time budget.
+ */
+public final class CancellationToken {
+    // Token that is never cancelled, the default of every solver
+    public static final CancellationToken NONE = new CancellationToken(Long.MAX_VALUE, false);
+
+    private final long deadline;
+    private final boolean hasDeadline;
+    private volatile boolean cancelled;
+
+    // Constructor for a token without deadline, only cancelled by cancel
+    public CancellationToken() {
+        this(Long.MAX_VALUE, false);
+    }
+
+    private CancellationToken(long deadline, boolean hasDeadline) {
+        this.deadline = deadline;
+        this.hasDeadline = hasDeadline;
+    }
+
+    /**
+     * Creates a token that cancels itself once the timeout has elapsed, counted from now.
+     *
+     * @param timeout The time budget.
+     * @return The token.
+     */
+    public static CancellationToken withTimeout(Duration timeout) {
+        return new CancellationToken(System.nanoTime() + timeout.toNanos(), true);
+    }
+
+    public void cancel() {
+        if (this == NONE) throw new UnsupportedOperationException("CancellationToken.NONE cannot be cancelled");
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled || (hasDeadline && System.nanoTime() - deadline >= 0);
+    }
+
+    /**
+     * Runs a solve on the executor. If the returned future is cancelled or completed exceptionally before the
+     * solve is done, e.g. by orTimeout, the token is cancelled so that the solving thread stops too.
+     *
+     * @param solve    The solve, polling this token.
+     * @param executor The executor running it.
+     * @return The future of the result.
+     */
+    public <R> CompletableFuture<R> supplyAsync(Supplier<R> solve, Executor executor) {
+        CompletableFuture<R> future = CompletableFuture.supplyAsync(solve, executor);
+        if (this != NONE) {
+            future.whenComplete((result, failure) -> {
+                if (failure != null) cancel();
+            });
+        }
+        return future;
+    }
+}
@@ -0,0 +1,317 @@
+import java.util.Arrays;
+
+/**
+ * Coordinates: small integers each describing one aspect of the cubies, with a transition table per coordinate
+ * so that applying a move is a single array lookup. Tables are indexed {@code [coordinate][move.ordinal()]}.
+ * <p>
+ * Cubies and orientations follow CubieLayout, so the solved cube has every coordinate at 0 except the slice
+ * coordinate, which is SOLVED_SLICE. Coordinates are read from any representation through getColor.
+ * <ul>
+ *     <li>twist: orientation of the first seven corners in base 3, the last one is implied (3^7)</li>
+ *     <li>flip: orientation of the first eleven edges in base 2, the last one is implied (2^11)</li>
+ *     <li>slice: which 4 of the 12 positions hold the E-slice edges FR, FL, BL, BR (12 choose 4)</li>
+ *     <li>corner permutation: Lehmer code of the corner cubies (8!)</li>
+ *     <li>U/D edge permutation: Lehmer code of the eight U/D edges, once they are all in the U and D layers (8!)</li>
+ *     <li>slice permutation: Lehmer code of the slice edges, once they are all in the slice (4!)</li>
+ * </ul>
+ * The last two only exist in the subgroup {@code <U, D, R2, L2, F2, B2>}, their tables hold NO_MOVE for moves
+ * leaving it.
+ */
+public final class Coordinates {
+    public static final int TWISTS = 2187;                  // 3^7
+    public static final int FLIPS = 2048;                   // 2^11
+    public static final int SLICES = 495;                   // 12 choose 4
+    public static final int CORNER_PERMUTATIONS = 40320;    // 8!
+    public static final int UD_EDGE_PERMUTATIONS = 40320;   // 8!
+    public static final int SLICE_PERMUTATIONS = 24;        // 4!
+    public static final int SOLVED_SLICE = SLICES - 1;      // slice edges on positions 8..11
+    public static final int NO_MOVE = -1;
+
+    static final int CORNERS = CubieLayout.CORNERS;
+    static final int EDGES = CubieLayout.EDGES;
+    static final int UD_EDGES = 8;          // UF, UL, UB, UR, DF, DL, DB, DR
+    static final int SLICE_EDGES = 4;       // FR, FL, BL, BR
+
+    private static final RubiksCube.Move[] ALL_MOVES = RubiksCube.Move.values();
+
+    // Effect of every move on the cubies: the position each cubie comes from and the twist or flip it picks up
+    static final int[][] CORNER_FROM = CubieMoves.CORNER_FROM;
+    static final int[][] CORNER_TWIST = CubieMoves.CORNER_TWIST;
+    static final int[][] EDGE_FROM = CubieMoves.EDGE_FROM;
+    static final int[][] EDGE_FLIP = CubieMoves.EDGE_FLIP;
+
+    // Transition tables
+    static final int[][] TWIST_MOVES = new int[TWISTS][ALL_MOVES.length];
+    static final int[][] FLIP_MOVES = new int[FLIPS][ALL_MOVES.length];
+    static final int[][] SLICE_MOVES = new int[SLICES][ALL_MOVES.length];
+    static final int[][] CORNER_PERMUTATION_MOVES = new int[CORNER_PERMUTATIONS][ALL_MOVES.length];
+    static final int[][] UD_EDGE_PERMUTATION_MOVES = new int[UD_EDGE_PERMUTATIONS][ALL_MOVES.length];
+    static final int[][] SLICE_PERMUTATION_MOVES = new int[SLICE_PERMUTATIONS][ALL_MOVES.length];
+
+    static {
+        buildOrientationTables();
+        buildPermutationTables();
+    }
+
+    private Coordinates() {
+    }
+
+    /**
+     * Checks whether a move keeps the cube in {@code <U, D, R2, L2, F2, B2>}: U and D turns and half turns.
+     *
+     * @param move The move.
+     * @return True if the move belongs to the subgroup.
+     */
+    public static boolean isSubgroupMove(RubiksCube.Move move) {
+        return MoveGenerator.getFace(move) / 2 == MoveGenerator.getFace(RubiksCube.Move.U) / 2
+                || move.ordinal() % 3 == 2;
+    }
+
+    // Coordinates of a cube
+
+    public static int getTwist(RubiksCube cube) {
+        int[] permutation = new int[CORNERS];
+        int[] orientation = new int[CORNERS];
+        CubieLayout.readCorners(cube, permutation, orientation);
+        return getTwist(orientation);
+    }
+
+    public static int getFlip(RubiksCube cube) {
+        int[] permutation = new int[EDGES];
+        int[] orientation = new int[EDGES];
+        CubieLayout.readEdges(cube, permutation, orientation);
+        return getFlip(orientation);
+    }
+
+    public static int getSlice(RubiksCube cube) {
+        int[] permutation = new int[EDGES];
+        CubieLayout.readEdges(cube, permutation, new int[EDGES]);
+        return getSlice(permutation);
+    }
+
+    public static int getCornerPermutation(RubiksCube cube) {
+        int[] permutation = new int[CORNERS];
+        CubieLayout.readCorners(cube, permutation, new int[CORNERS]);
+        return getCornerPermutation(permutation);
+    }
+
+    /**
+     * Gets the U/D edge permutation of a cube whose U/D edges are all in the U and D layers.
+     *
+     * @param cube The cube to read.
+     * @return The U/D edge permutation coordinate.
+     * @throws IllegalArgumentException If a slice edge is outside the slice.
+     */
+    public static int getUdEdgePermutation(RubiksCube cube) {
+        int[] permutation = new int[EDGES];
+        CubieLayout.readEdges(cube, permutation, new int[EDGES]);
+        if (getSlice(permutation) != SOLVED_SLICE) {
+            throw new IllegalArgumentException("U/D edges are not in the U and D layers");
+        }
+        return getUdEdgePermutation(permutation);
+    }
+
+    /**
+     * Gets the slice permutation of a cube whose slice edges are all in the slice.
+     *
+     * @param cube The cube to read.
+     * @return The slice permutation coordinate.
+     * @throws IllegalArgumentException If a slice edge is outside the slice.
+     */
+    public static int getSlicePermutation(RubiksCube cube) {
+        int[] permutation = new int[EDGES];
+        CubieLayout.readEdges(cube, permutation, new int[EDGES]);
+        if (getSlice(permutation) != SOLVED_SLICE) {
+            throw new IllegalArgumentException("Slice edges are not in the slice");
+        }
+        return getSlicePermutation(permutation);
+    }
+
+    // Coordinates of cubie arrays, as filled by CubieLayout.readCorners and CubieLayout.readEdges
+
+    public static int getTwist(int[] orientation) {
+        int twist = 0;
+        for (int corner = 0; corner < CORNERS - 1; corner++) {
+            twist = twist * 3 + orientation[corner];
+        }
+        return twist;
+    }
+
+    public static int getFlip(int[] orientation) {
+        int flip = 0;
+        for (int edge = 0; edge < EDGES - 1; edge++) {
+            flip = flip * 2 + orientation[edge];
+        }
+        return flip;
+    }
+
+    // Rank of the set of positions holding slice edges in the combinatorial number system
+    public static int getSlice(int[] edges) {
+        int slice = 0;
+        int found = 0;
+        for (int position = 0; position < EDGES; position++) {
+            if (edges[position] >= UD_EDGES) {
+                found++;
+                slice += binomial(position, found);
+            }
+        }
+        return slice;
+    }
+
+    public static int getCornerPermutation(int[] corners) {
+        return rank(corners, 0, CORNERS);
+    }
+
+    public static int getUdEdgePermutation(int[] edges) {
+        return rank(edges, 0, UD_EDGES);
+    }
+
+    public static int getSlicePermutation(int[] edges) {
+        return rank(edges, UD_EDGES, SLICE_EDGES);
+    }
+
+    /**
+     * Moves cubies: the cubie at each position afterwards is the one at the position it comes from.
+     *
+     * @param cubies The cubie at each position, not modified.
+     * @param from   The position each cubie comes from, a row of CORNER_FROM or EDGE_FROM.
+     * @return The moved cubies.
+     */
+    static int[] permute(int[] cubies, int[] from) {
+        int[] moved = new int[from.length];
+        for (int position = 0; position < from.length; position++) {
+            moved[position] = cubies[from[position]];
+        }
+        return moved;
+    }
+
+    private static void buildOrientationTables() {
+        int[] state = new int[EDGES];
+        int[] moved = new int[EDGES];
+        for (int move = 0; move < ALL_MOVES.length; move++) {
+            for (int twist = 0; twist < TWISTS; twist++) {
+                setTwist(twist, state);
+                for (int corner = 0; corner < CORNERS; corner++) {
+                    moved[corner] = (state[CORNER_FROM[move][corner]] + CORNER_TWIST[move][corner]) % 3;
+                }
+                TWIST_MOVES[twist][move] = getTwist(moved);
+            }
+            for (int flip = 0; flip < FLIPS; flip++) {
+                setFlip(flip, state);
+                for (int edge = 0; edge < EDGES; edge++) {
+                    moved[edge] = state[EDGE_FROM[move][edge]] ^ EDGE_FLIP[move][edge];
+                }
+                FLIP_MOVES[flip][move] = getFlip(moved);
+            }
+            for (int slice = 0; slice < SLICES; slice++) {
+                setSlice(slice, state);
+                SLICE_MOVES[slice][move] = getSlice(permute(state, EDGE_FROM[move]));
+            }
+        }
+    }
+
+    private static void buildPermutationTables() {
+        int[] permutation = new int[CORNERS];
+        int[] edges = new int[EDGES];
+        for (int move = 0; move < ALL_MOVES.length; move++) {
+            for (int index = 0; index < CORNER_PERMUTATIONS; index++) {
+                unrank(index, permutation, CORNERS);
+                CORNER_PERMUTATION_MOVES[index][move] = getCornerPermutation(permute(permutation, CORNER_FROM[move]));
+            }
+            if (!isSubgroupMove(ALL_MOVES[move])) {
+                for (int[] row : UD_EDGE_PERMUTATION_MOVES) row[move] = NO_MOVE;
+                for (int[] row : SLICE_PERMUTATION_MOVES) row[move] = NO_MOVE;
+                continue;
+            }
+            // Subgroup moves keep the U/D edges in the first eight positions and the slice edges in the slice
+            for (int index = 0; index < UD_EDGE_PERMUTATIONS; index++) {
+                unrank(index, edges, UD_EDGES);
+                UD_EDGE_PERMUTATION_MOVES[index][move] = getUdEdgePermutation(permute(edges, EDGE_FROM[move]));
+            }
+            for (int index = 0; index < SLICE_PERMUTATIONS; index++) {
+                unrank(index, permutation, SLICE_EDGES);
+                for (int edge = 0; edge < SLICE_EDGES; edge++) {
+                    edges[UD_EDGES + edge] = UD_EDGES + permutation[edge];
+                }
+                SLICE_PERMUTATION_MOVES[index][move] = getSlicePermutation(permute(edges, EDGE_FROM[move]));
+            }
+        }
+    }
+
+    private static void setTwist(int twist, int[] orientation) {
+        int sum = 0;
+        for (int corner = CORNERS - 2; corner >= 0; corner--) {
+            orientation[corner] = twist % 3;
+            sum += orientation[corner];
+            twist /= 3;
+        }
+        orientation[CORNERS - 1] = (3 - sum % 3) % 3;
+    }
+
+    private static void setFlip(int flip, int[] orientation) {
+        int sum = 0;
+        for (int edge = EDGES - 2; edge >= 0; edge--) {
+            orientation[edge] = flip & 1;
+            sum += orientation[edge];
+            flip >>= 1;
+        }
+        orientation[EDGES - 1] = sum & 1;
+    }
+
+    // Marks the positions of the slice edges with UD_EDGES and all others with 0, enough for getSlice
+    private static void setSlice(int slice, int[] edges) {
+        Arrays.fill(edges, 0);
+        int found = SLICE_EDGES;
+        for (int position = EDGES - 1; position >= 0 && found > 0; position--) {
+            int count = binomial(position, found);
+            if (slice >= count) {
+                slice -= count;
+                edges[position] = UD_EDGES;
+                found--;
+            }
+        }
+    }
+
+    private static int binomial(int n, int k) {
+        if (k > n) return 0;
+        int result = 1;
+        for (int i = 1; i <= k; i++) {
+            result = result * (n - k + i) / i;
+        }
+        return result;
+    }
+
+    // Lehmer code of the values in cubies[offset, offset + length), which only need to be distinct
+    private static int rank(int[] cubies, int offset, int length) {
+        int rank = 0;
+        for (int i = 0; i < length; i++) {
+            int smaller = 0;
+            for (int j = i + 1; j < length; j++) {
+                if (cubies[offset + j] < cubies[offset + i]) smaller++;
+            }
+            rank = rank * (length - i) + smaller;
+        }
+        return rank;
+    }
+
+    // Permutation of 0..length-1 with the given Lehmer code, written to the start of the array
+    private static void unrank(int rank, int[] permutation, int length) {
+        int[] digits = new int[length];
+        for (int i = length - 1; i >= 0; i--) {
+            digits[i] = rank % (length - i);
+            rank /= length - i;
+        }
+        boolean[] used = new boolean[length];
+        for (int i = 0; i < length; i++) {
+            int skip = digits[i];
+            for (int value = 0; value < length; value++) {
+                if (used[value]) continue;
+                if (skip-- == 0) {
+                    permutation[i] = value;
+                    used[value] = true;
+                    break;
+                }
+            }
+        }
+    }
+}
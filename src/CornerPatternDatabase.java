@@ -0,0 +1,191 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+/**
+ * Pattern database storing, for every arrangement of the eight corners, the minimum number of moves
+ * needed to solve the corners alone. Since solving the whole cube requires solving its corners,
+ * the stored distance is an admissible heuristic for IDA*.
+ * <p>
+ * A corner state is indexed as {@code cornerPermutation * 2187 + twist} with the coordinates of Coordinates,
+ * giving 8! * 3^7 = 88,179,840 entries. Each entry takes 4 bits, so the table uses about 42 MB.
+ * <p>
+ * Generating the table takes seconds even on all cores, so it can be saved once in the format of PatternDatabaseFile and
+ * memory-mapped by later runs: {@code java CornerPatternDatabase corners.pdb} writes the file.
+ */
+public class CornerPatternDatabase {
+    public static final int PERMUTATIONS = Coordinates.CORNER_PERMUTATIONS;
+    public static final int ORIENTATIONS = Coordinates.TWISTS;
+    public static final int SIZE = PERMUTATIONS * ORIENTATIONS;
+    public static final String NAME = "corners";
+
+    private static final int CORNERS = 8;
+    private static final int BITS_PER_ENTRY = 4;
+
+    // Raise whenever states are indexed differently, so that files written before are regenerated
+    private static final int LAYOUT_VERSION = 1;
+
+    // Positions whose (U/D, F/B, L/R) sticker order in RubiksCube3D.getCornerColorString runs counter-clockwise
+    private static final boolean[] MIRRORED = {true, false, true, false, false, true, true, false};
+
+    // Home position of each corner cubie, indexed by the value returned from RubiksCube3D.getCornerIndex
+    private static final int[] HOME = {0, 1, 3, 2, 4, 5, 6, 7};
+
+    // Space of the corner state indices searched by the generator
+    private static final PatternDatabaseGenerator.Space SPACE = new PatternDatabaseGenerator.Space() {
+        @Override
+        public int size() {
+            return SIZE;
+        }
+
+        @Override
+        public int moveCount() {
+            return RubiksCube.Move.values().length;
+        }
+
+        @Override
+        public int move(int index, int move) {
+            return CornerPatternDatabase.move(index, move);
+        }
+    };
+
+    // Two entries per byte, the low nibble holds the even index. On the heap when generated, mapped when loaded.
+    private final ByteBuffer database;
+
+    // Constructor generating the database with a parallel breadth-first search from the solved corners
+    public CornerPatternDatabase() {
+        this(new PatternDatabaseGenerator());
+    }
+
+    // Constructor generating the database with the given generator, which sets the pool and progress reporting
+    public CornerPatternDatabase(PatternDatabaseGenerator generator) {
+        this(generator.generate(SPACE, 0));
+    }
+
+    // Constructor wrapping a generated or loaded table
+    private CornerPatternDatabase(ByteBuffer database) {
+        this.database = database;
+    }
+
+    /**
+     * Maps a database saved by save, checking that it was generated for the current coordinates.
+     *
+     * @param file The database file.
+     * @return The database, backed by the mapped file.
+     * @throws IOException If the file cannot be read, is corrupted or was generated for another layout.
+     */
+    public static CornerPatternDatabase load(Path file) throws IOException {
+        return new CornerPatternDatabase(PatternDatabaseFile.map(file, NAME, fingerprint(), BITS_PER_ENTRY, SIZE));
+    }
+
+    /**
+     * Loads the database from a file, or generates it and saves it there if the file is missing or unusable,
+     * telling on standard error why it is generated.
+     *
+     * @param file The database file.
+     * @return The database.
+     * @throws IOException If a generated database cannot be saved.
+     */
+    public static CornerPatternDatabase loadOrGenerate(Path file) throws IOException {
+        try {
+            return load(file);
+        } catch (NoSuchFileException e) {
+            System.err.println(file + " not found, generating it");
+        } catch (IOException e) {
+            // A stale or damaged file is overwritten, which takes a while, so say why
+            System.err.println("Regenerating " + e.getMessage());
+        }
+        CornerPatternDatabase database = new CornerPatternDatabase();
+        database.save(file);
+        return database;
+    }
+
+    /**
+     * Saves the database so that load can map it.
+     *
+     * @param file The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(Path file) throws IOException {
+        PatternDatabaseFile.write(file, NAME, fingerprint(), BITS_PER_ENTRY, SIZE, database);
+    }
+
+    // Generates the database and writes it to the file given as argument
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: java CornerPatternDatabase <file>");
+            System.exit(2);
+        }
+        PatternDatabaseGenerator generator = new PatternDatabaseGenerator();
+        generator.setProgress(level -> System.out.printf("depth %2d: %,12d states, %,12d / %,d (%.1f s)%n",
+                level.depth(), level.states(), level.reached(), level.size(), level.nanos() / 1e9));
+        new CornerPatternDatabase(generator).save(Path.of(args[0]));
+    }
+
+    // Changes whenever the way moves act on the corners does, or LAYOUT_VERSION
+    private static long fingerprint() {
+        return PatternDatabaseFile.fingerprint(LAYOUT_VERSION, CubieMoves.CORNER_FROM, CubieMoves.CORNER_TWIST);
+    }
+
+    /**
+     * Gets the minimum number of moves needed to solve the corners of the state with the given index.
+     *
+     * @param index The corner state index.
+     * @return The distance to the solved corners.
+     */
+    public int getDistance(int index) {
+        return (database.get(index >>> 1) >>> ((index & 1) << 2)) & 0xF;
+    }
+
+    /**
+     * Computes the corner state index of a cube from its corner helpers.
+     *
+     * @param cube The cube to read.
+     * @return The corner state index.
+     */
+    public static int getIndex(RubiksCube3D cube) {
+        int[] permutation = new int[CORNERS];
+        int[] orientation = new int[CORNERS];
+        for (int corner = 0; corner < CORNERS; corner++) {
+            permutation[corner] = HOME[cube.getCornerIndex(corner)];
+            orientation[corner] = getTwist(cube, corner);
+        }
+        return Coordinates.getCornerPermutation(permutation) * ORIENTATIONS + Coordinates.getTwist(orientation);
+    }
+
+    /**
+     * Computes the corner state index of any cube through CubieLayout.
+     *
+     * @param cube The cube to read.
+     * @return The corner state index.
+     */
+    public static int getIndex(RubiksCube cube) {
+        int[] permutation = new int[CORNERS];
+        int[] orientation = new int[CORNERS];
+        CubieLayout.readCorners(cube, permutation, orientation);
+        return Coordinates.getCornerPermutation(permutation) * ORIENTATIONS + Coordinates.getTwist(orientation);
+    }
+
+    /**
+     * Gets the index of the corner state reached by applying a move to the given state.
+     *
+     * @param index The corner state index.
+     * @param move  The move to apply.
+     * @return The resulting corner state index.
+     */
+    public static int move(int index, RubiksCube.Move move) {
+        return move(index, move.ordinal());
+    }
+
+    private static int move(int index, int move) {
+        return Coordinates.CORNER_PERMUTATION_MOVES[index / ORIENTATIONS][move] * ORIENTATIONS
+                + Coordinates.TWIST_MOVES[index % ORIENTATIONS][move];
+    }
+
+    // Converts getCornerOrientation into a clockwise twist so that twists add up under moves
+    private static int getTwist(RubiksCube3D cube, int corner) {
+        int orientation = cube.getCornerOrientation(corner);
+        return MIRRORED[corner] ? (3 - orientation) % 3 : orientation;
+    }
+}
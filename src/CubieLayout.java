@@ -0,0 +1,175 @@
+import java.util.Arrays;
+
+/**
+ * Sticker layout of the 8 corner and 12 edge cubies, used to translate between stickers and cubies.
+ * Faces, rows and columns follow RubiksCube3D, where BOTTOM is the back face.
+ * <p>
+ * Corners are numbered like RubiksCube3D.getCornerColorString: UFR, UFL, UBL, UBR, DFR, DFL, DBR, DBL.
+ * Their stickers are listed clockwise starting from the U/D sticker, so that the orientation of a corner
+ * is the slot holding its U/D colour. Edges are numbered UF, UL, UB, UR, DF, DL, DB, DR, FR, FL, BL, BR
+ * and their orientation is 0 when the first colour of the cubie sits in the first slot of the position.
+ */
+public final class CubieLayout {
+    public static final int CORNERS = 8;
+    public static final int EDGES = 12;
+
+    private static final int U = RubiksCube.Face.UP.ordinal();
+    private static final int D = RubiksCube.Face.DOWN.ordinal();
+    private static final int F = RubiksCube.Face.FRONT.ordinal();
+    private static final int B = RubiksCube.Face.BOTTOM.ordinal();
+    private static final int L = RubiksCube.Face.LEFT.ordinal();
+    private static final int R = RubiksCube.Face.RIGHT.ordinal();
+
+    private static final RubiksCube.Face[] FACES = RubiksCube.Face.values();
+
+    // {face, row, col} of every corner sticker
+    static final int[][][] CORNER_FACELETS = {
+            {{U, 2, 2}, {R, 0, 0}, {F, 0, 2}}, // UFR
+            {{U, 2, 0}, {F, 0, 0}, {L, 0, 2}}, // UFL
+            {{U, 0, 0}, {L, 0, 0}, {B, 0, 2}}, // UBL
+            {{U, 0, 2}, {B, 0, 0}, {R, 0, 2}}, // UBR
+            {{D, 0, 2}, {F, 2, 2}, {R, 2, 0}}, // DFR
+            {{D, 0, 0}, {L, 2, 2}, {F, 2, 0}}, // DFL
+            {{D, 2, 2}, {R, 2, 2}, {B, 2, 0}}, // DBR
+            {{D, 2, 0}, {B, 2, 2}, {L, 2, 0}}  // DBL
+    };
+
+    // {face, row, col} of every edge sticker
+    static final int[][][] EDGE_FACELETS = {
+            {{U, 2, 1}, {F, 0, 1}}, // UF
+            {{U, 1, 0}, {L, 0, 1}}, // UL
+            {{U, 0, 1}, {B, 0, 1}}, // UB
+            {{U, 1, 2}, {R, 0, 1}}, // UR
+            {{D, 0, 1}, {F, 2, 1}}, // DF
+            {{D, 1, 0}, {L, 2, 1}}, // DL
+            {{D, 2, 1}, {B, 2, 1}}, // DB
+            {{D, 1, 2}, {R, 2, 1}}, // DR
+            {{F, 1, 2}, {R, 1, 0}}, // FR
+            {{F, 1, 0}, {L, 1, 2}}, // FL
+            {{B, 1, 2}, {L, 1, 0}}, // BL
+            {{B, 1, 0}, {R, 1, 2}}  // BR
+    };
+
+    // Cubie whose home stickers cover the given set of faces, indexed by a bit mask of face ordinals
+    private static final int[] cornerByFaces = new int[64];
+    private static final int[] edgeByFaces = new int[64];
+
+    static {
+        Arrays.fill(cornerByFaces, -1);
+        Arrays.fill(edgeByFaces, -1);
+        for (int corner = 0; corner < CORNERS; corner++) {
+            cornerByFaces[faceMask(CORNER_FACELETS[corner])] = corner;
+        }
+        for (int edge = 0; edge < EDGES; edge++) {
+            edgeByFaces[faceMask(EDGE_FACELETS[edge])] = edge;
+        }
+    }
+
+    private CubieLayout() {
+    }
+
+    // Corner cubie whose home stickers cover the faces of the mask (bit = Face ordinal), or -1
+    static int getCorner(int faceMask) {
+        return cornerByFaces[faceMask];
+    }
+
+    // Edge cubie whose home stickers cover the faces of the mask (bit = Face ordinal), or -1
+    static int getEdge(int faceMask) {
+        return edgeByFaces[faceMask];
+    }
+
+    private static int faceMask(int[][] facelets) {
+        int mask = 0;
+        for (int[] facelet : facelets) mask |= 1 << facelet[0];
+        return mask;
+    }
+
+    // Maps each colour to the face whose center shows it, so any colour scheme can be read
+    private static int[] getFaceOfColor(RubiksCube cube) {
+        int[] faceOfColor = new int[RubiksCube.Color.values().length];
+        for (RubiksCube.Face face : FACES) {
+            faceOfColor[cube.getColor(face, 1, 1).ordinal()] = face.ordinal();
+        }
+        return faceOfColor;
+    }
+
+    private static int getFace(RubiksCube cube, int[] facelet, int[] faceOfColor) {
+        return faceOfColor[cube.getColor(FACES[facelet[0]], facelet[1], facelet[2]).ordinal()];
+    }
+
+    /**
+     * Encodes the corners of a cube in one long, 5 bits per position: the cubie in the low 3 bits and its
+     * twist above, the same layout as RubiksCubePacked.getCorners.
+     *
+     * @param cube The cube to read.
+     * @return The corner key.
+     */
+    public static long getCornerKey(RubiksCube cube) {
+        int[] faceOfColor = getFaceOfColor(cube);
+        long key = 0;
+        for (int corner = 0; corner < CORNERS; corner++) {
+            int mask = 0;
+            int twist = 0;
+            for (int slot = 0; slot < 3; slot++) {
+                int face = getFace(cube, CORNER_FACELETS[corner][slot], faceOfColor);
+                if (face == U || face == D) twist = slot;
+                mask |= 1 << face;
+            }
+            int cubie = cornerByFaces[mask];
+            if (cubie < 0) throw new IllegalArgumentException("Invalid corner at position " + corner);
+            key |= (long) (cubie | twist << 3) << (5 * corner);
+        }
+        return key;
+    }
+
+    /**
+     * Encodes the edges of a cube in one long, 5 bits per position: the cubie in the low 4 bits and its
+     * flip above, the same layout as RubiksCubePacked.getEdges.
+     *
+     * @param cube The cube to read.
+     * @return The edge key.
+     */
+    public static long getEdgeKey(RubiksCube cube) {
+        int[] faceOfColor = getFaceOfColor(cube);
+        long key = 0;
+        for (int edge = 0; edge < EDGES; edge++) {
+            int first = getFace(cube, EDGE_FACELETS[edge][0], faceOfColor);
+            int second = getFace(cube, EDGE_FACELETS[edge][1], faceOfColor);
+            int cubie = edgeByFaces[(1 << first) | (1 << second)];
+            if (cubie < 0) throw new IllegalArgumentException("Invalid edge at position " + edge);
+            int flip = first == EDGE_FACELETS[cubie][0][0] ? 0 : 1;
+            key |= (long) (cubie | flip << 4) << (5 * edge);
+        }
+        return key;
+    }
+
+    /**
+     * Reads which corner cubie sits at every corner position and how it is twisted.
+     *
+     * @param cube        The cube to read.
+     * @param permutation Receives the cubie at each position.
+     * @param orientation Receives the twist (0-2) of each position.
+     */
+    public static void readCorners(RubiksCube cube, int[] permutation, int[] orientation) {
+        long key = cube.getCornerKey();
+        for (int corner = 0; corner < CORNERS; corner++) {
+            permutation[corner] = (int) (key >>> (5 * corner)) & 7;
+            orientation[corner] = (int) (key >>> (5 * corner + 3)) & 3;
+        }
+    }
+
+    /**
+     * Reads which edge cubie sits at every edge position and whether it is flipped.
+     *
+     * @param cube        The cube to read.
+     * @param permutation Receives the cubie at each position.
+     * @param orientation Receives the flip (0-1) of each position.
+     */
+    public static void readEdges(RubiksCube cube, int[] permutation, int[] orientation) {
+        long key = cube.getEdgeKey();
+        for (int edge = 0; edge < EDGES; edge++) {
+            permutation[edge] = (int) (key >>> (5 * edge)) & 15;
+            orientation[edge] = (int) (key >>> (5 * edge + 4)) & 1;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Effect of every move on the cubies: the position each cubie comes from and the twist or flip it picks up,
+ * indexed {@code [move.ordinal()][position]} with cubies and orientations as in CubieLayout.
+ * <p>
+ * Kept apart from the transition tables of Coordinates, which take far longer to build, so that the pattern
+ * databases can fingerprint and move their states without them.
+ */
+final class CubieMoves {
+    private static final RubiksCube.Move[] ALL_MOVES = RubiksCube.Move.values();
+
+    static final int[][] CORNER_FROM = new int[ALL_MOVES.length][CubieLayout.CORNERS];
+    static final int[][] CORNER_TWIST = new int[ALL_MOVES.length][CubieLayout.CORNERS];
+    static final int[][] EDGE_FROM = new int[ALL_MOVES.length][CubieLayout.EDGES];
+    static final int[][] EDGE_FLIP = new int[ALL_MOVES.length][CubieLayout.EDGES];
+
+    // Position every edge moves to, the inverse of EDGE_FROM
+    static final int[][] EDGE_TO = new int[ALL_MOVES.length][CubieLayout.EDGES];
+
+    static {
+        // Reads what every move does by applying it to a solved cube
+        for (int move = 0; move < ALL_MOVES.length; move++) {
+            RubiksCubePacked cube = new RubiksCubePacked();
+            cube.performMove(ALL_MOVES[move]);
+            CubieLayout.readCorners(cube, CORNER_FROM[move], CORNER_TWIST[move]);
+            CubieLayout.readEdges(cube, EDGE_FROM[move], EDGE_FLIP[move]);
+            for (int position = 0; position < CubieLayout.EDGES; position++) {
+                EDGE_TO[move][EDGE_FROM[move][position]] = position;
+            }
+        }
+    }
+
+    private CubieMoves() {
+    }
+}
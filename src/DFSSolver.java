@@ -1,45 +1,138 @@
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 // Typename T: RubiksCube Representation used (3D, 1D, Bitboard)
 // Typename H: Corresponding Hash function (could be used in more advanced methods)
 
 public class DFSSolver<T extends RubiksCube> {
+    // Nodes between two polls of the cancellation token and the thread's interrupt flag
+    static final int CHECK_INTERVAL = 4096;
+
     private final List<RubiksCube.Move> moves;
     private final int maxSearchDepth;
+    private final MoveGenerator moveGenerator;
+    private final TranspositionTable transpositionTable;
+    private SolverMetrics.Recorder recorder = new SolverMetrics.Recorder(null);
+    private CancellationToken cancellationToken = CancellationToken.NONE;
+    private int nodesUntilCheck = CHECK_INTERVAL;
+    private boolean cancelled;
+    private boolean exhausted;
      final T rubiksCube;
 
     // Constructor
     public DFSSolver(T rubiksCube, int maxSearchDepth) {
+        this(rubiksCube, maxSearchDepth, new MoveGenerator());
+    }
+
+    // Constructor with a shared move generator, e.g. to collect its pruning count
+    public DFSSolver(T rubiksCube, int maxSearchDepth, MoveGenerator moveGenerator) {
+        this(rubiksCube, maxSearchDepth, moveGenerator, null);
+    }
+
+    // Constructor with a transposition table skipping positions already explored with as many moves left,
+    // or null to search without one
+    public DFSSolver(T rubiksCube, int maxSearchDepth, MoveGenerator moveGenerator,
+                     TranspositionTable transpositionTable) {
         this.rubiksCube = rubiksCube;
+        this.transpositionTable = transpositionTable;
         this.maxSearchDepth = maxSearchDepth;
+        this.moveGenerator = moveGenerator;
         this.moves = new ArrayList<>();
     }
 
+    // Counts nodes, isSolved calls and transposition hits into the metrics, which may be shared between solvers
+    public void setMetrics(SolverMetrics metrics) {
+        this.recorder = new SolverMetrics.Recorder(metrics);
+    }
+
+    // Used by IDDFSSolver, whose recorder times every iteration
+    void setRecorder(SolverMetrics.Recorder recorder) {
+        this.recorder = recorder;
+    }
+
+    public void setCancellationToken(CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+    }
+
+    // Polls the token every CHECK_INTERVAL nodes. Once cancelled the search unwinds and stays cancelled.
+    // An interrupted thread gives up too, which is how BatchSolver enforces its time budget.
+    private boolean isCancelled() {
+        if (--nodesUntilCheck == 0) {
+            nodesUntilCheck = CHECK_INTERVAL;
+            cancelled = cancellationToken.isCancelled() || Thread.currentThread().isInterrupted();
+        }
+        return cancelled;
+    }
+
+    // True if the last solve was stopped by its token or an interrupt before it was done
+    public boolean wasCancelled() {
+        return cancelled;
+    }
+
+    // Number of moves every solution needs at least, as far as the last solve could tell
+    public int getLowerBound() {
+        return exhausted ? maxSearchDepth + 1 : 0;
+    }
+
     // DFS method to find the solution
-    private boolean dfs(int depth) {
+    private boolean dfs(int depth, RubiksCube.Move lastMove) {
+        recorder.generate(depth - 1);
+        recorder.solvedCheck();
         if (rubiksCube.isSolved()) {
             return true;
         }
-        if (depth > maxSearchDepth) {
+        if (depth > maxSearchDepth || isCancelled()) {
             return false;
         }
-        for (int i = 0; i < 18; i++) {
-            rubiksCube.performMove(RubiksCube.Move.values()[i]);
-            moves.add(RubiksCube.Move.values()[i]);
-            if (dfs(depth + 1)) {
+        int remaining = maxSearchDepth - depth + 1;
+        long hash = 0;
+        if (transpositionTable != null && remaining > 1) {
+            hash = TranspositionTable.hash(rubiksCube, lastMove);
+            if (transpositionTable.isExplored(hash, remaining)) {
+                recorder.cutoff();
+                return false;
+            }
+        }
+        RubiksCube.Move[] successors = moveGenerator.next(lastMove);
+        recorder.expand(depth - 1, successors.length);
+        for (RubiksCube.Move move : successors) {
+            rubiksCube.performMove(move);
+            moves.add(move);
+            if (dfs(depth + 1, move)) {
                 return true;
             }
             moves.removeLast();
-            rubiksCube.invert(RubiksCube.Move.values()[i]);
+            rubiksCube.invert(move);
+        }
+        // A cancelled search has not really explored the subtree
+        if (transpositionTable != null && remaining > 1 && !cancelled) {
+            transpositionTable.store(hash, remaining);
         }
         return false;
     }
 
     // Solve method to initiate DFS and return the solution
     public List<RubiksCube.Move> solve() {
-        dfs(1);
+        exhausted = !dfs(1, null) && !cancelled;
+        recorder.flush();
         return moves;
     }
 
+    /**
+     * Solves on the executor. Cancelling the future, or completing it with orTimeout, cancels the token so that
+     * the search stops; a token with a deadline makes the future complete normally with a cancelled result.
+     *
+     * @param executor The executor running the search.
+     * @return The future result.
+     */
+    public CompletableFuture<SolveResult> solveAsync(Executor executor) {
+        if (cancellationToken == CancellationToken.NONE) cancellationToken = new CancellationToken();
+        return cancellationToken.supplyAsync(() -> {
+            List<RubiksCube.Move> solution = solve();
+            return new SolveResult(solution, rubiksCube.isSolved(), cancelled, getLowerBound());
+        }, executor);
+    }
+
 }
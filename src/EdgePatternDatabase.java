@@ -0,0 +1,293 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Pattern database storing, for every placement of a group of six edges, the minimum number of moves needed to
+ * solve those edges alone, ignoring the corners and the other edges. Like the corner database it is an admissible
+ * heuristic, and so is the maximum of any admissible heuristics. Their sum is not: although the two halves of the
+ * edges and the corners are disjoint, every move turns corners and edges together, so one move counts in several.
+ * <p>
+ * A state is indexed as {@code positions * 64 + flips}: the positions of the six edges as a partial permutation
+ * of the 12 edge positions (12 * 11 * 10 * 9 * 8 * 7 = 665,280) and the flip of each edge in one bit, giving
+ * 42,577,920 entries. Each entry takes 4 bits, so the table uses about 20 MB. Edges are numbered as in CubieLayout
+ * and RubiksCube3D.getEdgeIndex.
+ * <p>
+ * Moves are applied by unranking the positions from a 2.6 MB table, moving each edge with CubieMoves and ranking
+ * the result. Full transition tables would take 60 MB of heap in every JVM, even one that maps the database, and
+ * miss the cache on almost every lookup of a search.
+ * {@code java EdgePatternDatabase <directory>} writes the databases of both halves.
+ */
+public class EdgePatternDatabase {
+    public static final int TRACKED = 6;
+    public static final int POSITIONS = 665280;    // 12 * 11 * 10 * 9 * 8 * 7
+    public static final int ORIENTATIONS = 64;      // 2^6
+    public static final int SIZE = POSITIONS * ORIENTATIONS;
+
+    // UF, UL, UB, UR, DF, DL and DB, DR, FR, FL, BL, BR
+    public static final int[] FIRST_HALF = {0, 1, 2, 3, 4, 5};
+    public static final int[] SECOND_HALF = {6, 7, 8, 9, 10, 11};
+
+    private static final int EDGES = CubieLayout.EDGES;
+    private static final int MOVES = RubiksCube.Move.values().length;
+    private static final int BITS_PER_ENTRY = 4;
+
+    // Raise whenever states are indexed differently, so that files written before are regenerated
+    private static final int LAYOUT_VERSION = 1;
+
+    // The six positions of every positions rank, 4 bits each with the first one lowest, 2.6 MB
+    private static final int[] UNRANKED = new int[POSITIONS];
+
+    static {
+        unrank(0, 0, 0, 0);
+    }
+
+    // Space of the state indices searched by the generator
+    private static final PatternDatabaseGenerator.Space SPACE = new PatternDatabaseGenerator.Space() {
+        @Override
+        public int size() {
+            return SIZE;
+        }
+
+        @Override
+        public int moveCount() {
+            return MOVES;
+        }
+
+        @Override
+        public int move(int index, int move) {
+            return EdgePatternDatabase.move(index, move);
+        }
+    };
+
+    private final int[] edges;
+
+    // Two entries per byte, the low nibble holds the even index. On the heap when generated, mapped when loaded.
+    private final ByteBuffer database;
+
+    // Constructor generating the database of the given six edges with a parallel breadth-first search
+    public EdgePatternDatabase(int... edges) {
+        this(new PatternDatabaseGenerator(), edges);
+    }
+
+    // Constructor generating the database with the given generator, which sets the pool and progress reporting
+    public EdgePatternDatabase(PatternDatabaseGenerator generator, int... edges) {
+        this.edges = checkEdges(edges);
+        // Solved, every edge sits at the position with its own number
+        this.database = generator.generate(SPACE, rank(this.edges) * ORIENTATIONS);
+    }
+
+    // Constructor wrapping a loaded table
+    private EdgePatternDatabase(int[] edges, ByteBuffer database) {
+        this.edges = edges;
+        this.database = database;
+    }
+
+    private static int[] checkEdges(int[] edges) {
+        if (edges.length != TRACKED) {
+            throw new IllegalArgumentException("An edge pattern database tracks exactly " + TRACKED + " edges");
+        }
+        boolean[] seen = new boolean[EDGES];
+        for (int edge : edges) {
+            if (edge < 0 || edge >= EDGES || seen[edge]) {
+                throw new IllegalArgumentException("Invalid edge group " + Arrays.toString(edges));
+            }
+            seen[edge] = true;
+        }
+        return edges.clone();
+    }
+
+    /**
+     * Maps a database saved by save, checking that it was generated for the same edges and move tables.
+     *
+     * @param file  The database file.
+     * @param edges The six tracked edges.
+     * @return The database, backed by the mapped file.
+     * @throws IOException If the file cannot be read, is corrupted or holds another table.
+     */
+    public static EdgePatternDatabase load(Path file, int... edges) throws IOException {
+        int[] group = checkEdges(edges);
+        return new EdgePatternDatabase(group,
+                PatternDatabaseFile.map(file, getName(group), fingerprint(), BITS_PER_ENTRY, SIZE));
+    }
+
+    /**
+     * Loads the database from a file, or generates it and saves it there if the file is missing or unusable,
+     * telling on standard error why it is generated.
+     *
+     * @param file  The database file.
+     * @param edges The six tracked edges.
+     * @return The database.
+     * @throws IOException If a generated database cannot be saved.
+     */
+    public static EdgePatternDatabase loadOrGenerate(Path file, int... edges) throws IOException {
+        try {
+            return load(file, edges);
+        } catch (NoSuchFileException e) {
+            System.err.println(file + " not found, generating it");
+        } catch (IOException e) {
+            // A stale or damaged file is overwritten, which takes a while, so say why
+            System.err.println("Regenerating " + e.getMessage());
+        }
+        EdgePatternDatabase database = new EdgePatternDatabase(edges);
+        database.save(file);
+        return database;
+    }
+
+    /**
+     * Saves the database so that load can map it.
+     *
+     * @param file The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(Path file) throws IOException {
+        PatternDatabaseFile.write(file, getName(edges), fingerprint(), BITS_PER_ENTRY, SIZE, database);
+    }
+
+    // Generates the databases of both halves and writes them to the directory given as argument
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: java EdgePatternDatabase <directory>");
+            System.exit(2);
+        }
+        PatternDatabaseGenerator generator = new PatternDatabaseGenerator();
+        generator.setProgress(level -> System.out.printf("depth %2d: %,12d states, %,12d / %,d (%.1f s)%n",
+                level.depth(), level.states(), level.reached(), level.size(), level.nanos() / 1e9));
+        for (int[] half : new int[][]{FIRST_HALF, SECOND_HALF}) {
+            Path file = Path.of(args[0], getName(half) + ".pdb");
+            System.out.println(file);
+            new EdgePatternDatabase(generator, half).save(file);
+        }
+    }
+
+    // Name stored in the file header, from the bit mask of the tracked edges
+    private static String getName(int[] edges) {
+        int mask = 0;
+        for (int edge : edges) mask |= 1 << edge;
+        return String.format("edges-%03x", mask);
+    }
+
+    // Changes whenever the way moves act on the edges does, or LAYOUT_VERSION
+    private static long fingerprint() {
+        return PatternDatabaseFile.fingerprint(LAYOUT_VERSION, CubieMoves.EDGE_FROM, CubieMoves.EDGE_FLIP);
+    }
+
+    public int[] getEdges() {
+        return edges.clone();
+    }
+
+    /**
+     * Gets the minimum number of moves needed to solve the tracked edges of the state with the given index.
+     *
+     * @param index The edge state index.
+     * @return The distance to the solved edges.
+     */
+    public int getDistance(int index) {
+        return (database.get(index >>> 1) >>> ((index & 1) << 2)) & 0xF;
+    }
+
+    /**
+     * Computes the edge state index of a cube from its edge helpers.
+     *
+     * @param cube The cube to read.
+     * @return The edge state index.
+     */
+    public int getIndex(RubiksCube3D cube) {
+        int[] positions = new int[TRACKED];
+        int flips = 0;
+        for (int position = 0; position < EDGES; position++) {
+            int tracked = indexOf(cube.getEdgeIndex(position));
+            if (tracked >= 0) {
+                positions[tracked] = position;
+                flips |= cube.getEdgeOrientation(position) << tracked;
+            }
+        }
+        return rank(positions) * ORIENTATIONS + flips;
+    }
+
+    /**
+     * Computes the edge state index of any cube through CubieLayout.
+     *
+     * @param cube The cube to read.
+     * @return The edge state index.
+     */
+    public int getIndex(RubiksCube cube) {
+        int[] permutation = new int[EDGES];
+        int[] orientation = new int[EDGES];
+        CubieLayout.readEdges(cube, permutation, orientation);
+        int[] positions = new int[TRACKED];
+        int flips = 0;
+        for (int position = 0; position < EDGES; position++) {
+            int tracked = indexOf(permutation[position]);
+            if (tracked >= 0) {
+                positions[tracked] = position;
+                flips |= orientation[position] << tracked;
+            }
+        }
+        return rank(positions) * ORIENTATIONS + flips;
+    }
+
+    private int indexOf(int edge) {
+        for (int i = 0; i < TRACKED; i++) {
+            if (edges[i] == edge) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the index of the edge state reached by applying a move to the given state.
+     *
+     * @param index The edge state index.
+     * @param move  The move to apply.
+     * @return The resulting edge state index.
+     */
+    public static int move(int index, RubiksCube.Move move) {
+        return move(index, move.ordinal());
+    }
+
+    // Moves each of the unranked positions and ranks the new positions in the same pass
+    private static int move(int index, int move) {
+        int positions = UNRANKED[index / ORIENTATIONS];
+        int flips = index % ORIENTATIONS;
+        int[] to = CubieMoves.EDGE_TO[move];
+        int[] flip = CubieMoves.EDGE_FLIP[move];
+        int used = 0;
+        int rank = 0;
+        for (int i = 0; i < TRACKED; i++) {
+            int moved = to[positions >>> (4 * i) & 0xF];
+            rank = rank * (EDGES - i) + Integer.bitCount(~used & ((1 << moved) - 1));
+            used |= 1 << moved;
+            flips ^= flip[moved] << i;
+        }
+        return rank * ORIENTATIONS + flips;
+    }
+
+    // Rank of six distinct positions in mixed radix 12, 11, ..., 7, each digit counting the smaller free positions
+    private static int rank(int[] positions) {
+        int rank = 0;
+        int used = 0;
+        for (int i = 0; i < TRACKED; i++) {
+            int smaller = Integer.bitCount(~used & ((1 << positions[i]) - 1));
+            rank = rank * (EDGES - i) + smaller;
+            used |= 1 << positions[i];
+        }
+        return rank;
+    }
+
+    // Fills UNRANKED below a prefix of the positions: choosing the free positions in increasing order at every
+    // level visits the ranks in increasing order. Returns the next rank to fill.
+    private static int unrank(int depth, int used, int positions, int rank) {
+        if (depth == TRACKED) {
+            UNRANKED[rank] = positions;
+            return rank + 1;
+        }
+        for (int position = 0; position < EDGES; position++) {
+            if ((used & (1 << position)) == 0) {
+                rank = unrank(depth + 1, used | 1 << position, positions | position << (4 * depth), rank);
+            }
+        }
+        return rank;
+    }
+}
@@ -0,0 +1,186 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+// Typename T: RubiksCube Representation used (3D, 1D, Bitboard, Packed)
+// Iterative deepening A* (Korf) using the corner pattern database as its heuristic,
+// or the maximum of the corner and edge pattern databases when edge databases are given.
+// Children are moved and cut off on their database indices alone, the cube is only turned for those searched.
+
+public class IDAStarSolver<T extends RubiksCube> {
+    private static final int FOUND = -1;
+
+    private final List<RubiksCube.Move> moves;
+    private final int maxSearchDepth;
+    private final CornerPatternDatabase database;
+    private final EdgePatternDatabase[] edgeDatabases;
+    // Edge state index of every edge database, for every depth of the current path
+    private final int[][] edgeIndices;
+    private final MoveGenerator moveGenerator;
+    private SolverMetrics.Recorder recorder = new SolverMetrics.Recorder(null);
+    private CancellationToken cancellationToken = CancellationToken.NONE;
+    private int nodesUntilCheck = DFSSolver.CHECK_INTERVAL;
+    private boolean cancelled;
+    private int lowerBound;
+    final T rubiksCube;
+
+    // Constructor
+    public IDAStarSolver(T rubiksCube, CornerPatternDatabase database, int maxSearchDepth) {
+        this(rubiksCube, database, maxSearchDepth, new MoveGenerator());
+    }
+
+    // Constructor with a shared move generator, e.g. to collect its pruning count
+    public IDAStarSolver(T rubiksCube, CornerPatternDatabase database, int maxSearchDepth, MoveGenerator moveGenerator) {
+        this(rubiksCube, database, new EdgePatternDatabase[0], maxSearchDepth, moveGenerator);
+    }
+
+    // Constructor adding edge pattern databases, e.g. both halves of the edges
+    public IDAStarSolver(T rubiksCube, CornerPatternDatabase database, EdgePatternDatabase[] edgeDatabases,
+                         int maxSearchDepth) {
+        this(rubiksCube, database, edgeDatabases, maxSearchDepth, new MoveGenerator());
+    }
+
+    // Constructor with edge pattern databases and a shared move generator
+    public IDAStarSolver(T rubiksCube, CornerPatternDatabase database, EdgePatternDatabase[] edgeDatabases,
+                         int maxSearchDepth, MoveGenerator moveGenerator) {
+        this.rubiksCube = rubiksCube;
+        this.database = database;
+        this.edgeDatabases = edgeDatabases.clone();
+        this.edgeIndices = new int[maxSearchDepth + 2][edgeDatabases.length];
+        this.moveGenerator = moveGenerator;
+        this.maxSearchDepth = maxSearchDepth;
+        this.moves = new ArrayList<>();
+    }
+
+    // Counts nodes and heuristic cutoffs into the metrics and reports every bound with its wall time
+    public void setMetrics(SolverMetrics metrics) {
+        this.recorder = new SolverMetrics.Recorder(metrics);
+    }
+
+    // Stops the solve within a few thousand nodes of the token firing, keeping the bounds completed so far
+    public void setCancellationToken(CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+    }
+
+    // Polls the token every CHECK_INTERVAL nodes, an interrupted thread gives up too
+    private boolean isCancelled() {
+        if (--nodesUntilCheck == 0) {
+            nodesUntilCheck = DFSSolver.CHECK_INTERVAL;
+            cancelled = cancellationToken.isCancelled() || Thread.currentThread().isInterrupted();
+        }
+        return cancelled;
+    }
+
+    // True if the last solve was stopped by its token or an interrupt before it was done
+    public boolean wasCancelled() {
+        return cancelled;
+    }
+
+    // Number of moves every solution needs at least: the last bound searched completely, or the length of the
+    // solution found, which is then optimal
+    public int getLowerBound() {
+        return lowerBound;
+    }
+
+    // Largest lower bound of the databases, the edge indices of the position are at edgeIndices[depth]
+    private int getHeuristic(int cornerIndex, int depth) {
+        int heuristic = database.getDistance(cornerIndex);
+        for (int i = 0; i < edgeDatabases.length; i++) {
+            heuristic = Math.max(heuristic, edgeDatabases[i].getDistance(edgeIndices[depth][i]));
+        }
+        return heuristic;
+    }
+
+    // Depth-first search bounded by g + h, returns FOUND or the smallest f that exceeded the bound.
+    // The estimate of the node itself is within the bound, its parent checked it.
+    private int search(int cornerIndex, int heuristic, int depth, int bound, RubiksCube.Move lastMove) {
+        recorder.generate(depth);
+        // A cancelled search gives up as if the tree were exhausted
+        if (isCancelled()) {
+            return Integer.MAX_VALUE;
+        }
+        // The corners, and the edges when tracked, must be solved before the whole cube can be
+        if (heuristic == 0) {
+            recorder.solvedCheck();
+            if (rubiksCube.isSolved()) {
+                return FOUND;
+            }
+        }
+        int minimum = Integer.MAX_VALUE;
+        RubiksCube.Move[] successors = moveGenerator.next(lastMove);
+        recorder.expand(depth, successors.length);
+        for (RubiksCube.Move move : successors) {
+            int childIndex = CornerPatternDatabase.move(cornerIndex, move);
+            int childEstimate = childEstimate(childIndex, depth, bound, move);
+            if (childEstimate > bound) {
+                recorder.cutoff();
+                minimum = Math.min(minimum, childEstimate);
+                continue;
+            }
+            rubiksCube.performMove(move);
+            moves.add(move);
+            int result = search(childIndex, childEstimate - depth - 1, depth + 1, bound, move);
+            if (result == FOUND) {
+                return FOUND;
+            }
+            minimum = Math.min(minimum, result);
+            moves.removeLast();
+            rubiksCube.invert(move);
+        }
+        return minimum;
+    }
+
+    // Estimate of the child reached by move, filling in its edge indices at edgeIndices[depth + 1].
+    // Stops at the first database that puts it over the bound, the remaining indices are then left stale.
+    private int childEstimate(int childIndex, int depth, int bound, RubiksCube.Move move) {
+        int estimate = depth + 1 + database.getDistance(childIndex);
+        for (int i = 0; i < edgeDatabases.length && estimate <= bound; i++) {
+            edgeIndices[depth + 1][i] = EdgePatternDatabase.move(edgeIndices[depth][i], move);
+            estimate = Math.max(estimate, depth + 1 + edgeDatabases[i].getDistance(edgeIndices[depth + 1][i]));
+        }
+        return estimate;
+    }
+
+    // Solve method raising the bound to the smallest estimate that exceeded it until a solution is found
+    public List<RubiksCube.Move> solve() {
+        int cornerIndex = CornerPatternDatabase.getIndex(rubiksCube);
+        for (int i = 0; i < edgeDatabases.length; i++) {
+            edgeIndices[0][i] = edgeDatabases[i].getIndex(rubiksCube);
+        }
+        int heuristic = getHeuristic(cornerIndex, 0);
+        int bound = heuristic;
+        cancelled = false;
+        lowerBound = bound;
+        while (bound <= maxSearchDepth) {
+            recorder.startIteration();
+            int result = search(cornerIndex, heuristic, 0, bound, null);
+            recorder.endIteration("IDAStarSolver", bound);
+            if (result == FOUND) {
+                lowerBound = moves.size();
+                break;
+            }
+            if (cancelled || result == Integer.MAX_VALUE) {
+                break;
+            }
+            bound = result;
+            lowerBound = bound;
+        }
+        return moves;
+    }
+
+    /**
+     * Solves on the executor. Cancelling the future, or completing it with orTimeout, cancels the token so that
+     * the search stops; a token with a deadline makes the future complete normally with the bounds completed.
+     *
+     * @param executor The executor running the search.
+     * @return The future result.
+     */
+    public CompletableFuture<SolveResult> solveAsync(Executor executor) {
+        if (cancellationToken == CancellationToken.NONE) cancellationToken = new CancellationToken();
+        return cancellationToken.supplyAsync(() -> {
+            List<RubiksCube.Move> solution = solve();
+            return new SolveResult(solution, rubiksCube.isSolved(), cancelled, lowerBound);
+        }, executor);
+    }
+}
@@ -1,5 +1,7 @@
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 // Typename T: RubiksCube Representation used (3D, 1D, Bitboard)
 // Typename H: Corresponding Hash function (could be used in more advanced methods)
@@ -7,27 +9,94 @@ import java.util.List;
 public class IDDFSSolver<T extends RubiksCube, H> {
 
     private final int maxSearchDepth;
+    private final MoveGenerator moveGenerator;
+    private final TranspositionTable transpositionTable;
     private List<RubiksCube.Move> moves;
+    private SolverMetrics.Recorder recorder = new SolverMetrics.Recorder(null);
+    private CancellationToken cancellationToken = CancellationToken.NONE;
+    private boolean cancelled;
+    private int lowerBound;
 
     private T rubiksCube;
 
     public IDDFSSolver(T rubiksCube, int maxSearchDepth) {
+        this(rubiksCube, maxSearchDepth, new MoveGenerator());
+    }
+
+    // The move generator is shared by every iteration, so its pruning count covers the whole solve
+    public IDDFSSolver(T rubiksCube, int maxSearchDepth, MoveGenerator moveGenerator) {
+        this(rubiksCube, maxSearchDepth, moveGenerator, null);
+    }
+
+    // The transposition table is shared too: a subtree without a solution has none in later iterations either
+    public IDDFSSolver(T rubiksCube, int maxSearchDepth, MoveGenerator moveGenerator,
+                       TranspositionTable transpositionTable) {
         this.rubiksCube = rubiksCube;
+        this.transpositionTable = transpositionTable;
         this.maxSearchDepth = maxSearchDepth;
+        this.moveGenerator = moveGenerator;
         this.moves = new ArrayList<>();
     }
 
+    // Counts the nodes of every iteration into the metrics and reports each iteration with its wall time
+    public void setMetrics(SolverMetrics metrics) {
+        this.recorder = new SolverMetrics.Recorder(metrics);
+    }
+
+    // Stops the solve within a few thousand nodes of the token firing, keeping the depths completed so far
+    public void setCancellationToken(CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+    }
+
+    // True if the last solve was stopped by its token or an interrupt before it was done
+    public boolean wasCancelled() {
+        return cancelled;
+    }
+
+    // Number of moves every solution needs at least: one more than the deepest iteration completed without
+    // a solution, or the length of the solution found, which is then optimal
+    public int getLowerBound() {
+        return lowerBound;
+    }
+
     // Used DFSSolver with increasing maxSearchDepth
     public List<RubiksCube.Move> solve() {
-        DFSSolver<T> dfsSolver = new DFSSolver<>(rubiksCube, 1);
+        DFSSolver<T> dfsSolver;
+        cancelled = false;
+        lowerBound = 0;
         for (int i = 1; i <= maxSearchDepth; i++) {
-            dfsSolver = new DFSSolver<>(rubiksCube, i);
+            dfsSolver = new DFSSolver<>(rubiksCube, i, moveGenerator, transpositionTable);
+            dfsSolver.setRecorder(recorder);
+            dfsSolver.setCancellationToken(cancellationToken);
+            recorder.startIteration();
             moves = dfsSolver.solve();
+            recorder.endIteration("IDDFSSolver", i);
             if (dfsSolver.rubiksCube.isSolved()) {
                 rubiksCube = dfsSolver.rubiksCube;
+                lowerBound = moves.size();
                 break;
             }
+            if (dfsSolver.wasCancelled()) {
+                cancelled = true;
+                break;
+            }
+            lowerBound = dfsSolver.getLowerBound();
         }
         return moves;
     }
+
+    /**
+     * Solves on the executor. Cancelling the future, or completing it with orTimeout, cancels the token so that
+     * the search stops; a token with a deadline makes the future complete normally with the depths completed.
+     *
+     * @param executor The executor running the search.
+     * @return The future result.
+     */
+    public CompletableFuture<SolveResult> solveAsync(Executor executor) {
+        if (cancellationToken == CancellationToken.NONE) cancellationToken = new CancellationToken();
+        return cancellationToken.supplyAsync(() -> {
+            List<RubiksCube.Move> solution = solve();
+            return new SolveResult(solution, rubiksCube.isSolved(), cancelled, lowerBound);
+        }, executor);
+    }
 }
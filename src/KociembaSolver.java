@@ -0,0 +1,206 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Typename T: RubiksCube Representation used (3D, 1D, Bitboard, Packed)
+// Kociemba's two-phase algorithm. Phase 1 brings the cube into the subgroup G1 = <U, D, R2, L2, F2, B2>,
+// where every corner and edge is oriented and the four E-slice edges (FR, FL, BL, BR) sit in the slice.
+// Phase 2 solves the cube using only the moves of G1. Both phases are IDA* searches over small coordinates
+// with the move tables of Coordinates and precomputed pruning tables, so a random-state cube is solved in milliseconds.
+// The solution is near-optimal: the first one within maxLength moves is returned.
+
+public class KociembaSolver<T extends RubiksCube> {
+    public static final int DEFAULT_MAX_LENGTH = 22;
+
+    private static final int TWISTS = Coordinates.TWISTS;
+    private static final int FLIPS = Coordinates.FLIPS;
+    private static final int SLICES = Coordinates.SLICES;
+    private static final int CORNER_PERMUTATIONS = Coordinates.CORNER_PERMUTATIONS;
+    private static final int UD_EDGE_PERMUTATIONS = Coordinates.UD_EDGE_PERMUTATIONS;
+    private static final int SLICE_PERMUTATIONS = Coordinates.SLICE_PERMUTATIONS;
+
+    private static final RubiksCube.Move[] ALL_MOVES = RubiksCube.Move.values();
+    private static final RubiksCube.Move[] PHASE2_MOVES = {
+            RubiksCube.Move.U, RubiksCube.Move.UPRIME, RubiksCube.Move.U2,
+            RubiksCube.Move.D, RubiksCube.Move.DPRIME, RubiksCube.Move.D2,
+            RubiksCube.Move.L2, RubiksCube.Move.R2, RubiksCube.Move.F2, RubiksCube.Move.B2
+    };
+    private static final byte UNKNOWN = -1;
+
+    // Pruning tables: the exact number of moves needed to solve a pair of coordinates, a lower bound for the phase
+    private static final byte[] sliceTwistPruning = new byte[SLICES * TWISTS];
+    private static final byte[] sliceFlipPruning = new byte[SLICES * FLIPS];
+    private static final byte[] sliceCornerPruning = new byte[SLICE_PERMUTATIONS * CORNER_PERMUTATIONS];
+    private static final byte[] sliceEdgePruning = new byte[SLICE_PERMUTATIONS * UD_EDGE_PERMUTATIONS];
+
+    static {
+        fillPruning(sliceTwistPruning, TWISTS, Coordinates.SOLVED_SLICE * TWISTS,
+                Coordinates.TWIST_MOVES, Coordinates.SLICE_MOVES, ALL_MOVES);
+        fillPruning(sliceFlipPruning, FLIPS, Coordinates.SOLVED_SLICE * FLIPS,
+                Coordinates.FLIP_MOVES, Coordinates.SLICE_MOVES, ALL_MOVES);
+        fillPruning(sliceCornerPruning, CORNER_PERMUTATIONS, 0,
+                Coordinates.CORNER_PERMUTATION_MOVES, Coordinates.SLICE_PERMUTATION_MOVES, PHASE2_MOVES);
+        fillPruning(sliceEdgePruning, UD_EDGE_PERMUTATIONS, 0,
+                Coordinates.UD_EDGE_PERMUTATION_MOVES, Coordinates.SLICE_PERMUTATION_MOVES, PHASE2_MOVES);
+    }
+
+    private final List<RubiksCube.Move> moves;
+    private final int maxLength;
+    private final RubiksCube.Move[] path;
+    private final int[] cornerPermutation = new int[CubieLayout.CORNERS];
+    private final int[] cornerOrientation = new int[CubieLayout.CORNERS];
+    private final int[] edgePermutation = new int[CubieLayout.EDGES];
+    private final int[] edgeOrientation = new int[CubieLayout.EDGES];
+    private SolverMetrics.Recorder recorder = new SolverMetrics.Recorder(null);
+    private final T rubiksCube;
+
+    // Constructor
+    public KociembaSolver(T rubiksCube) {
+        this(rubiksCube, DEFAULT_MAX_LENGTH);
+    }
+
+    // Constructor returning the first solution of at most maxLength moves
+    public KociembaSolver(T rubiksCube, int maxLength) {
+        this.rubiksCube = rubiksCube;
+        this.maxLength = maxLength;
+        this.path = new RubiksCube.Move[maxLength];
+        this.moves = new ArrayList<>();
+    }
+
+    // Counts the nodes of both phases and their pruning table cutoffs into the metrics, and reports every
+    // phase 1 length with its wall time
+    public void setMetrics(SolverMetrics metrics) {
+        this.recorder = new SolverMetrics.Recorder(metrics);
+    }
+
+    // Solve method running phase 1 with an increasing length, trying phase 2 after every phase 1 solution
+    public List<RubiksCube.Move> solve() {
+        CubieLayout.readCorners(rubiksCube, cornerPermutation, cornerOrientation);
+        CubieLayout.readEdges(rubiksCube, edgePermutation, edgeOrientation);
+        int twist = Coordinates.getTwist(cornerOrientation);
+        int flip = Coordinates.getFlip(edgeOrientation);
+        int slice = Coordinates.getSlice(edgePermutation);
+        for (int length = getPhase1Distance(twist, flip, slice); length <= maxLength; length++) {
+            recorder.startIteration();
+            boolean found = phase1(twist, flip, slice, 0, length, null);
+            recorder.endIteration("KociembaSolver", length);
+            if (found) {
+                for (RubiksCube.Move move : moves) {
+                    rubiksCube.performMove(move);
+                }
+                break;
+            }
+        }
+        return moves;
+    }
+
+    private static int getPhase1Distance(int twist, int flip, int slice) {
+        return Math.max(sliceTwistPruning[slice * TWISTS + twist], sliceFlipPruning[slice * FLIPS + flip]);
+    }
+
+    private static int getPhase2Distance(int cornerPermutation, int udEdgePermutation, int slicePermutation) {
+        return Math.max(sliceCornerPruning[slicePermutation * CORNER_PERMUTATIONS + cornerPermutation],
+                sliceEdgePruning[slicePermutation * UD_EDGE_PERMUTATIONS + udEdgePermutation]);
+    }
+
+    // Phase 1 IDA*: depth moves are on the path, togo more must reach G1
+    private boolean phase1(int twist, int flip, int slice, int depth, int togo, RubiksCube.Move lastMove) {
+        if (Thread.currentThread().isInterrupted()) return false;
+        recorder.generate(depth);
+        if (togo == 0) {
+            // A phase 1 ending in a G1 move reached G1 one move earlier, that start was already tried
+            return (lastMove == null || !Coordinates.isSubgroupMove(lastMove)) && startPhase2(depth, lastMove);
+        }
+        RubiksCube.Move[] successors = MoveGenerator.getSuccessors(lastMove);
+        recorder.expand(depth, successors.length);
+        for (RubiksCube.Move move : successors) {
+            int m = move.ordinal();
+            int nextTwist = Coordinates.TWIST_MOVES[twist][m];
+            int nextFlip = Coordinates.FLIP_MOVES[flip][m];
+            int nextSlice = Coordinates.SLICE_MOVES[slice][m];
+            if (getPhase1Distance(nextTwist, nextFlip, nextSlice) > togo - 1) {
+                recorder.cutoff();
+                continue;
+            }
+            path[depth] = move;
+            if (phase1(nextTwist, nextFlip, nextSlice, depth + 1, togo - 1, move)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Applies the phase 1 moves to the cubies, then searches phase 2 within the moves left
+    private boolean startPhase2(int phase1Length, RubiksCube.Move lastMove) {
+        int[] corners = cornerPermutation.clone();
+        int[] edges = edgePermutation.clone();
+        for (int i = 0; i < phase1Length; i++) {
+            corners = Coordinates.permute(corners, Coordinates.CORNER_FROM[path[i].ordinal()]);
+            edges = Coordinates.permute(edges, Coordinates.EDGE_FROM[path[i].ordinal()]);
+        }
+        int corner = Coordinates.getCornerPermutation(corners);
+        int udEdge = Coordinates.getUdEdgePermutation(edges);
+        int slicePermutation = Coordinates.getSlicePermutation(edges);
+        for (int length = getPhase2Distance(corner, udEdge, slicePermutation);
+             length <= maxLength - phase1Length; length++) {
+            if (phase2(corner, udEdge, slicePermutation, phase1Length, length, lastMove)) {
+                moves.addAll(Arrays.asList(path).subList(0, phase1Length + length));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Phase 2 IDA* using only the moves of G1
+    private boolean phase2(int corner, int udEdge, int slicePermutation, int depth, int togo, RubiksCube.Move lastMove) {
+        recorder.generate(depth);
+        if (togo == 0) {
+            return corner == 0 && udEdge == 0 && slicePermutation == 0;
+        }
+        recorder.expand(depth);
+        for (RubiksCube.Move move : PHASE2_MOVES) {
+            if (!MoveGenerator.isAllowed(lastMove, move)) {
+                continue;
+            }
+            int m = move.ordinal();
+            int nextCorner = Coordinates.CORNER_PERMUTATION_MOVES[corner][m];
+            int nextUdEdge = Coordinates.UD_EDGE_PERMUTATION_MOVES[udEdge][m];
+            int nextSlicePermutation = Coordinates.SLICE_PERMUTATION_MOVES[slicePermutation][m];
+            if (getPhase2Distance(nextCorner, nextUdEdge, nextSlicePermutation) > togo - 1) {
+                recorder.cutoff();
+                continue;
+            }
+            path[depth] = move;
+            if (phase2(nextCorner, nextUdEdge, nextSlicePermutation, depth + 1, togo - 1, move)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Breadth-first search over the pairs (slice coordinate, other coordinate), indexed slice * size + other
+    private static void fillPruning(byte[] table, int size, int solved, int[][] otherMoves, int[][] sliceMoves,
+                                    RubiksCube.Move[] moves) {
+        Arrays.fill(table, UNKNOWN);
+        table[solved] = 0;
+        int filled = 1;
+        for (byte depth = 0; filled < table.length; depth++) {
+            int found = 0;
+            for (int index = 0; index < table.length; index++) {
+                if (table[index] != depth) continue;
+                int slice = index / size;
+                int other = index % size;
+                for (RubiksCube.Move move : moves) {
+                    int m = move.ordinal();
+                    int next = sliceMoves[slice][m] * size + otherMoves[other][m];
+                    if (table[next] == UNKNOWN) {
+                        table[next] = (byte) (depth + 1);
+                        found++;
+                    }
+                }
+            }
+            if (found == 0) break;
+            filled += found;
+        }
+    }
+}
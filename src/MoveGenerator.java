@@ -0,0 +1,90 @@
+import java.util.Arrays;
+
+/**
+ * Generates the moves worth trying after a given move, so that searches only walk canonical sequences.
+ * Two kinds of redundancy are skipped:
+ * - turning the same face twice in a row (U U' is nothing, U U is U2)
+ * - turning two opposite faces in both orders (U D and D U give the same cube), only L R, F B and U D are kept
+ * This brings the branching factor from 18 down to about 13.35.
+ */
+public class MoveGenerator {
+    private static final RubiksCube.Move[] ALL_MOVES = RubiksCube.Move.values();
+
+    // Successors indexed by the ordinal of the last move, the last entry is for the start of a sequence
+    private static final RubiksCube.Move[][] successors = new RubiksCube.Move[ALL_MOVES.length + 1][];
+
+    static {
+        for (int last = 0; last <= ALL_MOVES.length; last++) {
+            RubiksCube.Move lastMove = last < ALL_MOVES.length ? ALL_MOVES[last] : null;
+            int count = 0;
+            RubiksCube.Move[] allowed = new RubiksCube.Move[ALL_MOVES.length];
+            for (RubiksCube.Move move : ALL_MOVES) {
+                if (isAllowed(lastMove, move)) allowed[count++] = move;
+            }
+            successors[last] = Arrays.copyOf(allowed, count);
+        }
+    }
+
+    private long pruned;
+
+    /**
+     * Gets the face turned by a move, numbered in Move order: L, R, F, B, U, D.
+     * Opposite faces share the same axis, {@code face / 2}.
+     *
+     * @param move The move.
+     * @return The face index (0-5).
+     */
+    public static int getFace(RubiksCube.Move move) {
+        return move.ordinal() / 3;
+    }
+
+    /**
+     * Checks whether a move may follow another one in a canonical sequence.
+     *
+     * @param lastMove The previous move, or null at the start of a sequence.
+     * @param move     The candidate move.
+     * @return True if the pair is canonical.
+     */
+    public static boolean isAllowed(RubiksCube.Move lastMove, RubiksCube.Move move) {
+        if (lastMove == null) return true;
+        int lastFace = getFace(lastMove);
+        int face = getFace(move);
+        if (face == lastFace) return false;
+        // Opposite faces commute, keep only the order with the lower face first
+        return !(face / 2 == lastFace / 2 && face < lastFace);
+    }
+
+    /**
+     * Gets the moves to try after the given move.
+     * The returned array is shared and must not be modified.
+     *
+     * @param lastMove The previous move, or null at the start of a sequence.
+     * @return The canonical successors.
+     */
+    public RubiksCube.Move[] next(RubiksCube.Move lastMove) {
+        RubiksCube.Move[] moves = getSuccessors(lastMove);
+        pruned += ALL_MOVES.length - moves.length;
+        return moves;
+    }
+
+    /**
+     * Gets the moves to try after the given move without counting the pruned ones,
+     * so it can be called from several threads.
+     * The returned array is shared and must not be modified.
+     *
+     * @param lastMove The previous move, or null at the start of a sequence.
+     * @return The canonical successors.
+     */
+    public static RubiksCube.Move[] getSuccessors(RubiksCube.Move lastMove) {
+        return successors[lastMove == null ? ALL_MOVES.length : lastMove.ordinal()];
+    }
+
+    /**
+     * Gets the number of successors skipped so far.
+     *
+     * @return The number of pruned nodes.
+     */
+    public long getPrunedCount() {
+        return pruned;
+    }
+}
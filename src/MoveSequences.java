@@ -0,0 +1,105 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Simplification and verification of move sequences, e.g. solver output before it is streamed or replayed.
+ * <p>
+ * simplify rewrites a sequence into the canonical form MoveGenerator enumerates, in a single pass over a stack:
+ * - inverse turns cancel (U U' is nothing), also across a turn of the opposite face (U D U' is D)
+ * - turns of the same face merge (U U is U2, U U2 is U', R R R is R')
+ * - turns of opposite faces, which commute, are ordered with the lower face first (D U becomes U D)
+ * Each incoming move only ever meets the last two moves kept, so the whole pass is linear in the length.
+ */
+public final class MoveSequences {
+    private static final RubiksCube.Move[] ALL_MOVES = RubiksCube.Move.values();
+
+    // Quarter turns clockwise of each kind of move, in Move order: X, X', X2
+    private static final int[] QUARTER_TURNS = {1, 3, 2};
+
+    // Move kind for 1, 2 and 3 quarter turns
+    private static final int[] KIND = {-1, 0, 2, 1};
+
+    private MoveSequences() {
+    }
+
+    /**
+     * Simplifies a move sequence into its canonical form, which turns the cube the same way.
+     *
+     * @param moves The moves.
+     * @return A new list with no cancelling or mergeable turns and opposite faces in canonical order.
+     */
+    public static List<RubiksCube.Move> simplify(List<RubiksCube.Move> moves) {
+        // Kept moves as face * 4 + quarter turns
+        int[] stack = new int[moves.size()];
+        int size = 0;
+        for (RubiksCube.Move move : moves) {
+            int face = MoveGenerator.getFace(move);
+            int turns = QUARTER_TURNS[move.ordinal() % 3];
+            if (size > 0 && stack[size - 1] / 4 == face) {
+                size = merge(stack, size, size - 1, turns);
+            } else if (size > 1 && isOpposite(stack[size - 1] / 4, face) && stack[size - 2] / 4 == face) {
+                // The opposite face's turn in between commutes with this one
+                size = merge(stack, size, size - 2, turns);
+            } else {
+                stack[size++] = face * 4 + turns;
+                if (size > 1 && isOpposite(stack[size - 2] / 4, face) && face < stack[size - 2] / 4) {
+                    int swap = stack[size - 1];
+                    stack[size - 1] = stack[size - 2];
+                    stack[size - 2] = swap;
+                }
+            }
+        }
+        List<RubiksCube.Move> simplified = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            simplified.add(ALL_MOVES[stack[i] / 4 * 3 + KIND[stack[i] % 4]]);
+        }
+        return simplified;
+    }
+
+    // Adds quarter turns to the kept move at index, removing it when they add up to nothing
+    private static int merge(int[] stack, int size, int index, int turns) {
+        int face = stack[index] / 4;
+        int total = (stack[index] % 4 + turns) % 4;
+        if (total != 0) {
+            stack[index] = face * 4 + total;
+            return size;
+        }
+        System.arraycopy(stack, index + 1, stack, index, size - index - 1);
+        return size - 1;
+    }
+
+    private static boolean isOpposite(int face, int other) {
+        return face != other && face / 2 == other / 2;
+    }
+
+    /**
+     * Checks whether a sequence is in the form simplify returns, every move allowed after the one before it
+     * by MoveGenerator.
+     *
+     * @param moves The moves.
+     * @return True if the sequence is canonical.
+     */
+    public static boolean isCanonical(List<RubiksCube.Move> moves) {
+        RubiksCube.Move lastMove = null;
+        for (RubiksCube.Move move : moves) {
+            if (!MoveGenerator.isAllowed(lastMove, move)) return false;
+            lastMove = move;
+        }
+        return true;
+    }
+
+    /**
+     * Checks that a sequence solves a cube, on a copy so the cube itself is left as it is.
+     *
+     * @param rubiksCube The scrambled cube.
+     * @param moves      The candidate solution.
+     * @return True if applying the moves solves the cube.
+     */
+    public static boolean solves(RubiksCube rubiksCube, List<RubiksCube.Move> moves) {
+        RubiksCube copy = rubiksCube.clone();
+        for (RubiksCube.Move move : moves) {
+            copy.performMove(move);
+        }
+        return copy.isSolved();
+    }
+}
@@ -0,0 +1,247 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+// Typename T: RubiksCube Representation used (3D, 1D, Bitboard, Packed)
+// Iterative deepening search whose first levels are split into fork-join tasks, each working on its own clone.
+// Every bound is searched completely before the next one, so the solution has the same (minimal) depth
+// as the sequential IDDFSSolver or IDAStarSolver would find.
+
+public class ParallelSolver<T extends RubiksCube> {
+    private static final int FOUND = -1;
+
+    // Levels of the move tree turned into tasks: 18 + 243 subtrees keep a large pool busy
+    private static final int SPLIT_DEPTH = 2;
+
+    private final int maxSearchDepth;
+    private final CornerPatternDatabase database;
+    private final ForkJoinPool pool;
+    private final T rubiksCube;
+
+    // Shared between tasks so that the others stop as soon as one of them finds a solution or the solve is cancelled
+    private final AtomicBoolean stopped = new AtomicBoolean();
+    private final AtomicReference<List<RubiksCube.Move>> solution = new AtomicReference<>();
+
+    // Each task below the split levels records on its own thread, the bound's node count is summed here
+    private SolverMetrics metrics;
+    private final LongAdder iterationNodes = new LongAdder();
+
+    private CancellationToken cancellationToken = CancellationToken.NONE;
+    private volatile boolean cancelled;
+
+    // Constructor running a plain iterative deepening search on the common pool
+    public ParallelSolver(T rubiksCube, int maxSearchDepth) {
+        this(rubiksCube, null, maxSearchDepth, ForkJoinPool.commonPool());
+    }
+
+    // Constructor, database is the IDA* heuristic or null for a plain iterative deepening search
+    public ParallelSolver(T rubiksCube, CornerPatternDatabase database, int maxSearchDepth, ForkJoinPool pool) {
+        this.rubiksCube = rubiksCube;
+        this.database = database;
+        this.maxSearchDepth = maxSearchDepth;
+        this.pool = pool;
+    }
+
+    // Counts the nodes below the split levels into the metrics and reports every bound with its wall time
+    public void setMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    // Stops the solve within a few thousand nodes per task of the token firing or the calling thread being interrupted
+    public void setCancellationToken(CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+    }
+
+    // True if the last solve was stopped by its token or an interrupt before it was done
+    public boolean wasCancelled() {
+        return cancelled;
+    }
+
+    private int getHeuristic(int cornerIndex) {
+        return database == null ? 0 : database.getDistance(cornerIndex);
+    }
+
+    private int nextCornerIndex(int cornerIndex, RubiksCube.Move move) {
+        return database == null ? 0 : CornerPatternDatabase.move(cornerIndex, move);
+    }
+
+    // Search of the subtree below a node, either split into subtasks or run sequentially on the task's own cube
+    @SuppressWarnings("serial")
+    private final class SearchTask extends RecursiveTask<Integer> {
+        private final RubiksCube cube;
+        private final List<RubiksCube.Move> path;
+        private final int cornerIndex;
+        private final int bound;
+        private int nodesUntilCheck = DFSSolver.CHECK_INTERVAL;
+
+        SearchTask(RubiksCube cube, List<RubiksCube.Move> path, int cornerIndex, int bound) {
+            this.cube = cube;
+            this.path = path;
+            this.cornerIndex = cornerIndex;
+            this.bound = bound;
+        }
+
+        @Override
+        protected Integer compute() {
+            RubiksCube.Move lastMove = path.isEmpty() ? null : path.getLast();
+            if (path.size() >= SPLIT_DEPTH) {
+                SolverMetrics.Recorder recorder = new SolverMetrics.Recorder(metrics);
+                recorder.startIteration();
+                try {
+                    return search(cornerIndex, lastMove, new MoveGenerator(), recorder);
+                } finally {
+                    recorder.flush();
+                    iterationNodes.add(recorder.getIterationNodes());
+                }
+            }
+            int estimate = path.size() + getHeuristic(cornerIndex);
+            if (estimate > bound) {
+                return estimate;
+            }
+            if (estimate == path.size() && isSolution()) {
+                return FOUND;
+            }
+            List<SearchTask> tasks = new ArrayList<>();
+            for (RubiksCube.Move move : MoveGenerator.getSuccessors(lastMove)) {
+                RubiksCube child = cube.clone();
+                child.performMove(move);
+                List<RubiksCube.Move> childPath = new ArrayList<>(path);
+                childPath.add(move);
+                tasks.add(new SearchTask(child, childPath, nextCornerIndex(cornerIndex, move), bound));
+            }
+            int minimum = Integer.MAX_VALUE;
+            for (SearchTask task : invokeAll(tasks)) {
+                int result = task.join();
+                if (result == FOUND) return FOUND;
+                minimum = Math.min(minimum, result);
+            }
+            return minimum;
+        }
+
+        // Sequential IDA* below the split levels, returns FOUND or the smallest f that exceeded the bound
+        private int search(int cornerIndex, RubiksCube.Move lastMove, MoveGenerator moveGenerator,
+                           SolverMetrics.Recorder recorder) {
+            if (isStopped()) {
+                return Integer.MAX_VALUE;
+            }
+            recorder.generate(path.size());
+            int heuristic = getHeuristic(cornerIndex);
+            int estimate = path.size() + heuristic;
+            if (estimate > bound) {
+                return estimate;
+            }
+            if (heuristic == 0) {
+                recorder.solvedCheck();
+                if (isSolution()) {
+                    return FOUND;
+                }
+            }
+            // Without a heuristic every child exceeds the bound by exactly one
+            if (database == null && estimate == bound) {
+                return bound + 1;
+            }
+            int minimum = Integer.MAX_VALUE;
+            RubiksCube.Move[] successors = moveGenerator.next(lastMove);
+            recorder.expand(path.size(), successors.length);
+            for (RubiksCube.Move move : successors) {
+                // Children over the bound are cut off from the corner index alone, without turning the cube
+                int childIndex = nextCornerIndex(cornerIndex, move);
+                int childEstimate = path.size() + 1 + getHeuristic(childIndex);
+                if (childEstimate > bound) {
+                    recorder.cutoff();
+                    minimum = Math.min(minimum, childEstimate);
+                    continue;
+                }
+                cube.performMove(move);
+                path.add(move);
+                int result = search(childIndex, move, moveGenerator, recorder);
+                path.removeLast();
+                cube.invert(move);
+                if (result == FOUND) {
+                    return FOUND;
+                }
+                minimum = Math.min(minimum, result);
+            }
+            return minimum;
+        }
+
+        // Polls the token every CHECK_INTERVAL nodes, stopping every task once it fires
+        private boolean isStopped() {
+            if (--nodesUntilCheck == 0) {
+                nodesUntilCheck = DFSSolver.CHECK_INTERVAL;
+                if (cancellationToken.isCancelled()) {
+                    cancelled = true;
+                    stopped.set(true);
+                }
+            }
+            return stopped.get();
+        }
+
+        // Publishes the path if the cube is solved and no other task got there first
+        private boolean isSolution() {
+            if (!cube.isSolved()) {
+                return false;
+            }
+            if (stopped.compareAndSet(false, true)) {
+                solution.set(new ArrayList<>(path));
+            }
+            return true;
+        }
+    }
+
+    // Runs a bound on the pool. The workers are not the thread that gets interrupted, so an interrupt while waiting
+    // stops them through the shared flag; the interrupt is kept for the caller.
+    private int invoke(SearchTask task) {
+        ForkJoinTask<Integer> future = pool.submit(task);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            cancelled = true;
+            stopped.set(true);
+            int result = future.join();
+            Thread.currentThread().interrupt();
+            return result;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Solve method raising the bound until a task finds a solution, which is then applied to the cube
+    public List<RubiksCube.Move> solve() {
+        int cornerIndex = database == null ? 0 : CornerPatternDatabase.getIndex(rubiksCube);
+        int bound = getHeuristic(cornerIndex);
+        // A solver may be reused, the previous solve must not stop this one or hand it its solution
+        stopped.set(false);
+        solution.set(null);
+        cancelled = false;
+        while (bound <= maxSearchDepth) {
+            long start = System.nanoTime();
+            iterationNodes.reset();
+            int result = invoke(new SearchTask(rubiksCube.clone(), new ArrayList<>(), cornerIndex, bound));
+            if (metrics != null && metrics.hasListeners()) {
+                metrics.report(new SolverMetrics.Iteration("ParallelSolver", bound, iterationNodes.sum(),
+                        System.nanoTime() - start));
+            }
+            if (stopped.get() || result == Integer.MAX_VALUE) {
+                break;
+            }
+            bound = result;
+        }
+        List<RubiksCube.Move> moves = solution.get();
+        if (moves == null) {
+            return new ArrayList<>();
+        }
+        for (RubiksCube.Move move : moves) {
+            rubiksCube.performMove(move);
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,214 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary file format for pattern and pruning tables, so they are generated once and then mapped into memory
+ * at startup instead of being rebuilt. A mapped table is read-only and backed by the page cache, so several
+ * JVMs on one host share a single copy.
+ * <p>
+ * The file is a 64-byte big-endian header followed by the raw table bytes:
+ * <pre>
+ *  0  magic "RUBIKPDB"       8 bytes
+ *  8  format version         int
+ * 12  bits per entry         int
+ * 16  layout fingerprint     long, see fingerprint
+ * 24  number of entries      long
+ * 32  data length in bytes   long
+ * 40  CRC32C of the data     long
+ * 48  table name             16 bytes ASCII, zero padded
+ * </pre>
+ * map rejects a file when its length or any header field differs from what the reader expects, which catches
+ * tables built by an older layout as well as truncated files. It does not read the data, so loading stays in the
+ * milliseconds and pages are only faulted in as the search touches them. The checksum, which has to read every
+ * page, is checked by verify, e.g. {@code java PatternDatabaseFile corners.pdb} after copying tables around.
+ */
+public final class PatternDatabaseFile {
+    public static final int FORMAT_VERSION = 1;
+    public static final int HEADER_BYTES = 64;
+
+    private static final long MAGIC = 0x525542494B504442L;    // "RUBIKPDB"
+    private static final int NAME_BYTES = 16;
+
+    private PatternDatabaseFile() {
+    }
+
+    /**
+     * Computes a fingerprint of the layout a pattern database was generated for. If the way moves act on the
+     * cubies or the indexing version changes, so does the fingerprint, and files written before are no longer
+     * accepted. The tables should be small, like those of CubieMoves, since every load hashes them.
+     *
+     * @param version Version of the indexing, to be raised whenever states are numbered differently.
+     * @param tables  The tables describing the moves, see CubieMoves.
+     * @return The fingerprint.
+     */
+    public static long fingerprint(int version, int[][]... tables) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES * CubieLayout.EDGES);
+        long fingerprint = (long) version << 32 | tables.length;
+        for (int[][] table : tables) {
+            crc.reset();
+            for (int[] row : table) {
+                buffer.clear();
+                for (int next : row) buffer.putInt(next);
+                buffer.flip();
+                crc.update(buffer);
+            }
+            fingerprint = RubiksCube.mix(fingerprint ^ ((long) table.length << 32 | crc.getValue()));
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Writes a table to a file. The data goes to a temporary file first, which is then moved over the target,
+     * so a reader never maps a partially written table.
+     *
+     * @param file         The file to write.
+     * @param name         Name of the table, at most 16 ASCII characters.
+     * @param fingerprint  Fingerprint of the layout the table was generated from.
+     * @param bitsPerEntry Size of one entry.
+     * @param entries      Number of entries.
+     * @param data         The table, written from position 0 to its limit.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(Path file, String name, long fingerprint, int bitsPerEntry, long entries,
+                             ByteBuffer data) throws IOException {
+        ByteBuffer table = data.duplicate().position(0);
+        CRC32C crc = new CRC32C();
+        crc.update(table.duplicate());
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putLong(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putInt(bitsPerEntry)
+                .putLong(fingerprint)
+                .putLong(entries)
+                .putLong(table.remaining())
+                .putLong(crc.getValue())
+                .put(encodeName(name))
+                .flip();
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining()) channel.write(header);
+                while (table.hasRemaining()) channel.write(table);
+                channel.force(false);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Maps the data of a table file read-only, after checking its length and header against the expected
+     * layout. The data and its checksum are not read, see verify. The mapping stays valid after this method returns.
+     *
+     * @param file         The file to map.
+     * @param name         Expected name of the table.
+     * @param fingerprint  Expected layout fingerprint.
+     * @param bitsPerEntry Expected size of one entry.
+     * @param entries      Expected number of entries.
+     * @return The table data, from position 0.
+     * @throws IOException If the file cannot be read or does not hold the expected table.
+     */
+    public static ByteBuffer map(Path file, String name, long fingerprint, int bitsPerEntry, long entries)
+            throws IOException {
+        long length = (entries * bitsPerEntry + 7) / 8;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != HEADER_BYTES + length) {
+                throw new IOException(file + ": expected " + (HEADER_BYTES + length) + " bytes, found " + channel.size());
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) throw new IOException(file + ": truncated header");
+            }
+            header.flip();
+            check(file, "magic", header.getLong(), MAGIC);
+            check(file, "format version", header.getInt(), FORMAT_VERSION);
+            check(file, "bits per entry", header.getInt(), bitsPerEntry);
+            check(file, "fingerprint", header.getLong(), fingerprint);
+            check(file, "entries", header.getLong(), entries);
+            check(file, "data length", header.getLong(), length);
+            header.getLong();
+            byte[] storedName = new byte[NAME_BYTES];
+            header.get(storedName);
+            if (!Arrays.equals(storedName, encodeName(name))) {
+                throw new IOException(file + ": does not hold table " + name);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, length);
+        }
+    }
+
+    /**
+     * Checks that a table file is complete and that its data matches the checksum in its header, whatever
+     * table it holds. Reads the whole file.
+     *
+     * @param file The file to check.
+     * @throws IOException If the file cannot be read, is truncated or corrupted.
+     */
+    public static void verify(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) throw new IOException(file + ": truncated header");
+            }
+            header.flip();
+            check(file, "magic", header.getLong(), MAGIC);
+            check(file, "format version", header.getInt(), FORMAT_VERSION);
+            header.position(32);
+            long length = header.getLong();
+            long checksum = header.getLong();
+            check(file, "data length", channel.size() - HEADER_BYTES, length);
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, length);
+            CRC32C crc = new CRC32C();
+            crc.update(data);
+            check(file, "checksum", crc.getValue(), checksum);
+        }
+    }
+
+    // Verifies the table files given as arguments, exiting with 1 if any of them is damaged
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: java PatternDatabaseFile <file>...");
+            System.exit(2);
+        }
+        boolean damaged = false;
+        for (String file : args) {
+            try {
+                verify(Path.of(file));
+                System.out.println(file + ": ok");
+            } catch (IOException e) {
+                System.out.println(e.getMessage());
+                damaged = true;
+            }
+        }
+        if (damaged) System.exit(1);
+    }
+
+    private static void check(Path file, String field, long actual, long expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException(file + ": " + field + " is " + Long.toHexString(actual)
+                    + ", expected " + Long.toHexString(expected));
+        }
+    }
+
+    private static byte[] encodeName(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.US_ASCII);
+        if (bytes.length > NAME_BYTES) throw new IllegalArgumentException("Table name too long: " + name);
+        byte[] padded = new byte[NAME_BYTES];
+        System.arraycopy(bytes, 0, padded, 0, bytes.length);
+        return padded;
+    }
+}
@@ -0,0 +1,187 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Generates pattern databases: the distance of every state of a ranked coordinate space to the goal states,
+ * with a level-synchronous breadth-first search run on all threads of a pool.
+ * <p>
+ * Distances take 4 bits, 16 per long of an AtomicLongArray, and are set with compare-and-set on the whole word,
+ * so threads expanding the same level never lose each other's updates. 0xF marks an unknown state, which limits
+ * distances to 14. Each level is scanned top-down, expanding the states found at the previous depth, until the
+ * unknown states are fewer than the frontier; from then on it runs bottom-up, with every unknown state looking
+ * for a neighbour at the previous depth, which skips most of the work of the last, largest levels. Bottom-up
+ * relies on the moves of the space being closed under inverse, which holds for the 18 face turns.
+ */
+public class PatternDatabaseGenerator {
+    public static final int MAX_DISTANCE = 14;
+
+    private static final int UNKNOWN = 0xF;
+    private static final int CHUNKS_PER_THREAD = 16;
+
+    /**
+     * Coordinate space searched by the generator, indexed from 0 to size - 1.
+     */
+    public interface Space {
+        int size();
+
+        int moveCount();
+
+        int move(int index, int move);
+    }
+
+    /**
+     * Progress of the search: the states at depth, how many are known so far and the time spent on the level.
+     */
+    public record Level(int depth, long states, long reached, long size, long nanos) {
+    }
+
+    private final ForkJoinPool pool;
+    private Consumer<Level> progress = level -> {
+    };
+
+    // Constructor using the common pool
+    public PatternDatabaseGenerator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    // Constructor
+    public PatternDatabaseGenerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // Receives one Level after every depth, on the calling thread
+    public void setProgress(Consumer<Level> progress) {
+        this.progress = progress;
+    }
+
+    /**
+     * Computes the distance of every state to the nearest goal.
+     *
+     * @param space The coordinate space.
+     * @param goals Indices of the goal states, at distance 0.
+     * @return The distances, two per byte with the low nibble holding the even index, 0xF for unreachable states.
+     * @throws IllegalStateException If a state lies further than MAX_DISTANCE from the goals.
+     */
+    public ByteBuffer generate(Space space, int... goals) {
+        int size = space.size();
+        AtomicLongArray distances = new AtomicLongArray((size + 15) >>> 4);
+        for (int word = 0; word < distances.length(); word++) {
+            distances.set(word, -1L);
+        }
+        long reached = 0;
+        for (int goal : goals) {
+            if (setIfUnknown(distances, goal, 0)) reached++;
+        }
+        progress.accept(new Level(0, reached, reached, size, 0));
+
+        long frontier = reached;
+        for (int depth = 0; reached < size; depth++) {
+            long start = System.nanoTime();
+            boolean bottomUp = size - reached < frontier;
+            long found = expand(space, distances, depth, bottomUp);
+            if (found == 0) break;
+            if (depth + 1 > MAX_DISTANCE) {
+                throw new IllegalStateException("States further than " + MAX_DISTANCE + " moves do not fit in 4 bits");
+            }
+            reached += found;
+            frontier = found;
+            progress.accept(new Level(depth + 1, found, reached, size, System.nanoTime() - start));
+        }
+
+        ByteBuffer table = ByteBuffer.allocate((size + 1) >>> 1);
+        for (int i = 0; i < table.capacity(); i++) {
+            table.put(i, (byte) (distances.get(i >>> 3) >>> ((i & 7) << 3)));
+        }
+        return table;
+    }
+
+    // Finds the states at depth + 1, splitting the words into chunks run on the pool
+    private long expand(Space space, AtomicLongArray distances, int depth, boolean bottomUp) {
+        int words = distances.length();
+        int chunks = Math.min(words, pool.getParallelism() * CHUNKS_PER_THREAD);
+        List<Callable<Long>> tasks = new ArrayList<>(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int from = (int) ((long) words * chunk / chunks);
+            int to = (int) ((long) words * (chunk + 1) / chunks);
+            tasks.add(bottomUp
+                    ? () -> expandBottomUp(space, distances, depth, from, to)
+                    : () -> expandTopDown(space, distances, depth, from, to));
+        }
+        long found = 0;
+        try {
+            for (Future<Long> result : pool.invokeAll(tasks)) {
+                found += result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating a pattern database", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Pattern database generation failed", e.getCause());
+        }
+        return found;
+    }
+
+    // Expands every state at depth found in words [from, to)
+    private static long expandTopDown(Space space, AtomicLongArray distances, int depth, int from, int to) {
+        int size = space.size();
+        int moves = space.moveCount();
+        long found = 0;
+        for (int word = from; word < to; word++) {
+            long entries = distances.get(word);
+            for (int nibble = 0; nibble < 16; nibble++) {
+                if ((int) (entries >>> (nibble << 2) & 0xF) != depth) continue;
+                int index = (word << 4) | nibble;
+                if (index >= size) break;
+                for (int move = 0; move < moves; move++) {
+                    if (setIfUnknown(distances, space.move(index, move), depth + 1)) found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    // Sets every unknown state in words [from, to) that has a neighbour at depth
+    private static long expandBottomUp(Space space, AtomicLongArray distances, int depth, int from, int to) {
+        int size = space.size();
+        int moves = space.moveCount();
+        long found = 0;
+        for (int word = from; word < to; word++) {
+            long entries = distances.get(word);
+            for (int nibble = 0; nibble < 16; nibble++) {
+                if ((int) (entries >>> (nibble << 2) & 0xF) != UNKNOWN) continue;
+                int index = (word << 4) | nibble;
+                if (index >= size) break;
+                for (int move = 0; move < moves; move++) {
+                    if (get(distances, space.move(index, move)) == depth) {
+                        if (setIfUnknown(distances, index, depth + 1)) found++;
+                        break;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private static int get(AtomicLongArray distances, int index) {
+        return (int) (distances.get(index >>> 4) >>> ((index & 15) << 2)) & 0xF;
+    }
+
+    // Sets a distance unless the state is already known, returning whether this call set it
+    private static boolean setIfUnknown(AtomicLongArray distances, int index, int distance) {
+        int word = index >>> 4;
+        int shift = (index & 15) << 2;
+        while (true) {
+            long entries = distances.get(word);
+            if ((entries >>> shift & 0xF) != UNKNOWN) return false;
+            long updated = entries & ~(0xFL << shift) | (long) distance << shift;
+            if (distances.compareAndSet(word, entries, updated)) return true;
+        }
+    }
+}
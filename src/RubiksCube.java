@@ -77,6 +77,25 @@ public abstract class RubiksCube implements Cloneable {
      */
     public abstract boolean isSolved();
 
+    /**
+     * Encodes the positions and twists of the eight corners in one long.
+     * Together with getEdgeKey this identifies the state of the cube, whatever its representation or colour scheme.
+     *
+     * @return The corner key, laid out as described in CubieLayout.getCornerKey.
+     */
+    public long getCornerKey() {
+        return CubieLayout.getCornerKey(this);
+    }
+
+    /**
+     * Encodes the positions and flips of the twelve edges in one long.
+     *
+     * @return The edge key, laid out as described in CubieLayout.getEdgeKey.
+     */
+    public long getEdgeKey() {
+        return CubieLayout.getEdgeKey(this);
+    }
+
     /**
      * Converts a Move enum to its corresponding string representation.
      *
@@ -106,6 +125,67 @@ public abstract class RubiksCube implements Cloneable {
         };
     }
 
+    /**
+     * Converts a move string, as returned by getMove, back to a Move enum.
+     *
+     * @param move The move string, e.g. "R", "U'" or "F2".
+     * @return The move.
+     * @throws IllegalArgumentException If the string is not a move.
+     */
+    public static Move parseMove(String move) {
+        return switch (move) {
+            case "L" -> Move.L;
+            case "L'" -> Move.LPRIME;
+            case "L2" -> Move.L2;
+            case "R" -> Move.R;
+            case "R'" -> Move.RPRIME;
+            case "R2" -> Move.R2;
+            case "U" -> Move.U;
+            case "U'" -> Move.UPRIME;
+            case "U2" -> Move.U2;
+            case "D" -> Move.D;
+            case "D'" -> Move.DPRIME;
+            case "D2" -> Move.D2;
+            case "F" -> Move.F;
+            case "F'" -> Move.FPRIME;
+            case "F2" -> Move.F2;
+            case "B" -> Move.B;
+            case "B'" -> Move.BPRIME;
+            case "B2" -> Move.B2;
+            default -> throw new IllegalArgumentException("Not a move: " + move);
+        };
+    }
+
+    /**
+     * Parses a sequence of moves separated by whitespace, e.g. "R U' F2".
+     *
+     * @param moves The move sequence, may be blank.
+     * @return The moves in order.
+     * @throws IllegalArgumentException If a token is not a move.
+     */
+    public static List<Move> parseMoves(String moves) {
+        List<Move> parsed = new ArrayList<>();
+        for (String move : moves.trim().split("\\s+")) {
+            if (!move.isEmpty()) parsed.add(parseMove(move));
+        }
+        return parsed;
+    }
+
+    /**
+     * Formats a sequence of moves the way parseMoves reads them.
+     *
+     * @param moves The moves.
+     * @return The moves separated by single spaces.
+     */
+    public static String formatMoves(List<Move> moves) {
+        StringBuilder builder = new StringBuilder();
+        for (Move move : moves) {
+            if (!builder.isEmpty()) builder.append(' ');
+            builder.append(getMove(move));
+        }
+        return builder.toString();
+    }
+
     /**
      * Applies the given move to the Rubik's Cube.
      * This method must be implemented by subclasses to define how each move affects the cube's state.
@@ -137,34 +217,42 @@ public abstract class RubiksCube implements Cloneable {
 
     ;
 
+    /**
+     * Gets the move that undoes the given move.
+     *
+     * @param move The move to invert.
+     * @return The inverse move.
+     */
+    public static Move getInverse(Move move) {
+        return switch (move) {
+            case L -> Move.LPRIME;
+            case LPRIME -> Move.L;
+            case L2 -> Move.L2;
+            case R -> Move.RPRIME;
+            case RPRIME -> Move.R;
+            case R2 -> Move.R2;
+            case U -> Move.UPRIME;
+            case UPRIME -> Move.U;
+            case U2 -> Move.U2;
+            case D -> Move.DPRIME;
+            case DPRIME -> Move.D;
+            case D2 -> Move.D2;
+            case F -> Move.FPRIME;
+            case FPRIME -> Move.F;
+            case F2 -> Move.F2;
+            case B -> Move.BPRIME;
+            case BPRIME -> Move.B;
+            case B2 -> Move.B2;
+        };
+    }
+
     /**
      * Applies the inverse of the given move to the Rubik's Cube.
      *
      * @param move The move to invert.
-     * @ The updated Rubik's Cube after the inverse move.
      */
     public void invert(Move move) {
-        switch (move) {
-            case L -> this.performMove(Move.LPRIME);
-            case LPRIME -> this.performMove(Move.L);
-            case L2 -> this.performMove(Move.L2);
-            case R -> this.performMove(Move.RPRIME);
-            case RPRIME -> this.performMove(Move.R);
-            case R2 -> this.performMove(Move.R2);
-            case U -> this.performMove(Move.UPRIME);
-            case UPRIME -> this.performMove(Move.U);
-            case U2 -> this.performMove(Move.U2);
-            case D -> this.performMove(Move.DPRIME);
-            case DPRIME -> this.performMove(Move.D);
-            case D2 -> this.performMove(Move.D2);
-            case F -> this.performMove(Move.FPRIME);
-            case FPRIME -> this.performMove(Move.F);
-            case F2 -> this.performMove(Move.F2);
-            case B -> this.performMove(Move.BPRIME);
-            case BPRIME -> this.performMove(Move.B);
-            case B2 -> this.performMove(Move.B2);
-        }
-        ;
+        this.performMove(getInverse(move));
     }
 
     /**
@@ -222,6 +310,44 @@ public abstract class RubiksCube implements Cloneable {
     public abstract void bPrime();
 
     public abstract void b2();
+    /**
+     * Gets a 64-bit hash of the state of the cube, equal for equal cubes of the same representation.
+     * It is meant to be O(1): sticker-based cubes keep a Zobrist hash up to date in every move, while cubes
+     * stored in a few longs mix them.
+     *
+     * @return The state hash.
+     */
+    public abstract long getStateHash();
+
+    // Spreads the bits of a long over the whole word, the finalizer of MurmurHash3
+    protected static long mix(long hash) {
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * Overwrites this cube with the state of another cube of the same representation, without allocating.
+     * Solvers use it to recycle cube instances instead of cloning one per node.
+     *
+     * @param other The cube to copy, of the same class as this one.
+     * @throws IllegalArgumentException If the other cube has a different representation.
+     */
+    public abstract void copyFrom(RubiksCube other);
+
+    /**
+     * Puts the cube back in its solved state, without allocating.
+     */
+    public abstract void reset();
+
+    // Used by copyFrom implementations to reject a cube of another representation
+    protected void checkSameRepresentation(RubiksCube other) {
+        if (other.getClass() != getClass()) {
+            throw new IllegalArgumentException("Cannot copy a " + other.getClass().getSimpleName()
+                    + " into a " + getClass().getSimpleName());
+        }
+    }
+
     @Override
     public RubiksCube clone() {
         try {
@@ -3,7 +3,10 @@ import java.util.Arrays;
 public class RubiksCube1D extends RubiksCube {
 
     // Cube representation as a 1D array
-    private final char[] cube = new char[54];
+    private char[] cube = new char[54];
+
+    // Zobrist hash of the stickers, kept up to date by every move
+    private long hash;
 
     // Constructor to initialize the cube with default colors
     public RubiksCube1D() {
@@ -13,6 +16,7 @@ public class RubiksCube1D extends RubiksCube {
                 cube[i * 9 + j] = colorLetter;
             }
         }
+        hash = Zobrist.hash(cube);
     }
 
     // Method to get the flattened index for a face, row, and column
@@ -20,25 +24,72 @@ public class RubiksCube1D extends RubiksCube {
         return (ind * 9) + (row * 3) + col;
     }
 
-    // Method to rotate a face 90 degrees clockwise
-    private void rotateFace(int ind) {
-        char[] tempArr = new char[9];
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                tempArr[i * 3 + j] = cube[getIndex(ind, i, j)];
-            }
+    // Method to turn a face 90 degrees clockwise, moving every sticker one step along its cycle.
+    // The Zobrist hash swaps the keys of the old colours on the cycle for the keys of the new ones.
+    private void turn(int[] cycles) {
+        long delta = 0;
+        for (int i = 0; i < cycles.length; i += 4) {
+            int p0 = cycles[i], p1 = cycles[i + 1], p2 = cycles[i + 2], p3 = cycles[i + 3];
+            char c0 = cube[p0], c1 = cube[p1], c2 = cube[p2], c3 = cube[p3];
+            cube[p0] = c3;
+            cube[p1] = c0;
+            cube[p2] = c1;
+            cube[p3] = c2;
+            delta ^= Zobrist.key(p0, c0) ^ Zobrist.key(p1, c1) ^ Zobrist.key(p2, c2) ^ Zobrist.key(p3, c3)
+                    ^ Zobrist.key(p0, c3) ^ Zobrist.key(p1, c0) ^ Zobrist.key(p2, c1) ^ Zobrist.key(p3, c2);
+        }
+        hash ^= delta;
+    }
+
+    // Method to turn a face 90 degrees counter-clockwise
+    private void turnPrime(int[] cycles) {
+        long delta = 0;
+        for (int i = 0; i < cycles.length; i += 4) {
+            int p0 = cycles[i], p1 = cycles[i + 1], p2 = cycles[i + 2], p3 = cycles[i + 3];
+            char c0 = cube[p0], c1 = cube[p1], c2 = cube[p2], c3 = cube[p3];
+            cube[p0] = c1;
+            cube[p1] = c2;
+            cube[p2] = c3;
+            cube[p3] = c0;
+            delta ^= Zobrist.key(p0, c0) ^ Zobrist.key(p1, c1) ^ Zobrist.key(p2, c2) ^ Zobrist.key(p3, c3)
+                    ^ Zobrist.key(p0, c1) ^ Zobrist.key(p1, c2) ^ Zobrist.key(p2, c3) ^ Zobrist.key(p3, c0);
+        }
+        hash ^= delta;
+    }
+
+    // Method to turn a face 180 degrees
+    private void turn2(int[] cycles) {
+        long delta = 0;
+        for (int i = 0; i < cycles.length; i += 4) {
+            int p0 = cycles[i], p1 = cycles[i + 1], p2 = cycles[i + 2], p3 = cycles[i + 3];
+            char c0 = cube[p0], c1 = cube[p1], c2 = cube[p2], c3 = cube[p3];
+            cube[p0] = c2;
+            cube[p1] = c3;
+            cube[p2] = c0;
+            cube[p3] = c1;
+            delta ^= Zobrist.key(p0, c0) ^ Zobrist.key(p1, c1) ^ Zobrist.key(p2, c2) ^ Zobrist.key(p3, c3)
+                    ^ Zobrist.key(p0, c2) ^ Zobrist.key(p1, c3) ^ Zobrist.key(p2, c0) ^ Zobrist.key(p3, c1);
         }
-        for (int i = 0; i < 3; i++) cube[getIndex(ind, 0, i)] = tempArr[getIndex(0, 2 - i, 0)];
-        for (int i = 0; i < 3; i++) cube[getIndex(ind, i, 2)] = tempArr[getIndex(0, 0, i)];
-        for (int i = 0; i < 3; i++) cube[getIndex(ind, 2, 2 - i)] = tempArr[getIndex(0, i, 2)];
-        for (int i = 0; i < 3; i++) cube[getIndex(ind, 2 - i, 0)] = tempArr[getIndex(0, 2, 2 - i)];
+        hash ^= delta;
     }
 
     // Helper method to convert a COLOR enum to its char representation
 
+    // Method to get the storage index of a face, in the order used by the rotation methods
+    private static int getFaceIndex(Face face) {
+        return switch (face) {
+            case UP -> 0;
+            case LEFT -> 1;
+            case FRONT -> 2;
+            case RIGHT -> 3;
+            case BOTTOM -> 4;
+            case DOWN -> 5;
+        };
+    }
+
     // Method to get the color of a specific face, row, and column
     public Color getColor(Face face, int row, int col) {
-        char color = cube[getIndex(face.ordinal(), row, col)];
+        char color = cube[getIndex(getFaceIndex(face), row, col)];
         return switch (color) {
             case 'B' -> Color.BLUE;
             case 'R' -> Color.RED;
@@ -60,140 +111,101 @@ public class RubiksCube1D extends RubiksCube {
         return true;
     }
 
-    // Rotation methods
+    // Rotation methods, applied in place from the sticker cycles in StickerCycles
 
     public void u() {
-        rotateFace(0);
-
-        char[] tempArr = new char[3];
-        for (int i = 0; i < 3; i++) tempArr[i] = cube[getIndex(4, 0, 2 - i)];
-        for (int i = 0; i < 3; i++) cube[getIndex(4, 0, 2 - i)] = cube[getIndex(1, 0, 2 - i)];
-        for (int i = 0; i < 3; i++) cube[getIndex(1, 0, 2 - i)] = cube[getIndex(2, 0, 2 - i)];
-        for (int i = 0; i < 3; i++) cube[getIndex(2, 0, 2 - i)] = cube[getIndex(3, 0, 2 - i)];
-        for (int i = 0; i < 3; i++) cube[getIndex(3, 0, 2 - i)] = tempArr[i];
+        turn(StickerCycles.U);
     }
 
-
-
     public void uPrime() {
-        u();
-        u();
-        u();
+        turnPrime(StickerCycles.U);
     }
 
     public void u2() {
-        u();
-        u();
+        turn2(StickerCycles.U);
     }
 
     public void l() {
-        rotateFace(1);
-
-        char[] tempArr = new char[3];
-        for (int i = 0; i < 3; i++) tempArr[i] = cube[getIndex(0, i, 0)];
-        for (int i = 0; i < 3; i++) cube[getIndex(0, i, 0)] = cube[getIndex(4, 2 - i, 2)];
-        for (int i = 0; i < 3; i++) cube[getIndex(4, 2 - i, 2)] = cube[getIndex(5, i, 0)];
-        for (int i = 0; i < 3; i++) cube[getIndex(5, i, 0)] = cube[getIndex(2, i, 0)];
-        for (int i = 0; i < 3; i++) cube[getIndex(2, i, 0)] = tempArr[i];
+        turn(StickerCycles.L);
     }
 
     public void lPrime() {
-        l();
-        l();
-        l();
+        turnPrime(StickerCycles.L);
     }
 
     public void l2() {
-        l();
-        l();
+        turn2(StickerCycles.L);
     }
 
     public void f() {
-        rotateFace(2);
-
-        char[] tempArr = new char[3];
-        for (int i = 0; i < 3; i++) tempArr[i] = cube[getIndex(0, 2, i)];
-        for (int i = 0; i < 3; i++) cube[getIndex(0, 2, i)] = cube[getIndex(1, 2 - i, 2)];
-        for (int i = 0; i < 3; i++) cube[getIndex(1, 2 - i, 2)] = cube[getIndex(5, 0, 2 - i)];
-        for (int i = 0; i < 3; i++) cube[getIndex(5, 0, 2 - i)] = cube[getIndex(3, i, 0)];
-        for (int i = 0; i < 3; i++) cube[getIndex(3, i, 0)] = tempArr[i];
+        turn(StickerCycles.F);
     }
 
     public void fPrime() {
-        f();
-        f();
-        f();
+        turnPrime(StickerCycles.F);
     }
 
     public void f2() {
-        f();
-        f();
+        turn2(StickerCycles.F);
     }
 
     public void r() {
-        rotateFace(3);
-
-        char[] tempArr = new char[3];
-        for (int i = 0; i < 3; i++) tempArr[i] = cube[getIndex(0, 2 - i, 2)];
-        for (int i = 0; i < 3; i++) cube[getIndex(0, 2 - i, 2)] = cube[getIndex(2, 2 - i, 2)];
-        for (int i = 0; i < 3; i++) cube[getIndex(2, 2 - i, 2)] = cube[getIndex(5, 2 - i, 2)];
-        for (int i = 0; i < 3; i++) cube[getIndex(5, 2 - i, 2)] = cube[getIndex(4, i, 0)];
-        for (int i = 0; i < 3; i++) cube[getIndex(4, i, 0)] = tempArr[i];
+        turn(StickerCycles.R);
     }
 
     public void rPrime() {
-        r();
-        r();
-        r();
+        turnPrime(StickerCycles.R);
     }
 
     public void r2() {
-        r();
-        r();
+        turn2(StickerCycles.R);
     }
 
     public void b() {
-        rotateFace(4);
-
-        char[] tempArr = new char[3];
-        for (int i = 0; i < 3; i++) tempArr[i] = cube[getIndex(0, 0, 2 - i)];
-        for (int i = 0; i < 3; i++) cube[getIndex(0, 0, 2 - i)] = cube[getIndex(3, 2 - i, 2)];
-        for (int i = 0; i < 3; i++) cube[getIndex(3, 2 - i, 2)] = cube[getIndex(5, 2, i)];
-        for (int i = 0; i < 3; i++) cube[getIndex(5, 2, i)] = cube[getIndex(1, i, 0)];
-        for (int i = 0; i < 3; i++) cube[getIndex(1, i, 0)] = tempArr[i];
+        turn(StickerCycles.B);
     }
 
     public void bPrime() {
-        b();
-        b();
-        b();
+        turnPrime(StickerCycles.B);
     }
 
     public void b2() {
-        b();
-        b();
+        turn2(StickerCycles.B);
     }
 
     public void d() {
-        rotateFace(5);
-
-        char[] tempArr = new char[3];
-        for (int i = 0; i < 3; i++) tempArr[i] = cube[getIndex(2, 2, i)];
-        for (int i = 0; i < 3; i++) cube[getIndex(2, 2, i)] = cube[getIndex(1, 2, i)];
-        for (int i = 0; i < 3; i++) cube[getIndex(1, 2, i)] = cube[getIndex(4, 2, i)];
-        for (int i = 0; i < 3; i++) cube[getIndex(4, 2, i)] = cube[getIndex(3, 2, i)];
-        for (int i = 0; i < 3; i++) cube[getIndex(3, 2, i)] = tempArr[i];
+        turn(StickerCycles.D);
     }
 
     public void dPrime() {
-        d();
-        d();
-        d();
+        turnPrime(StickerCycles.D);
     }
 
     public void d2() {
-        d();
-        d();
+        turn2(StickerCycles.D);
+    }
+
+    // Overriding clone so the copy gets its own stickers
+    @Override
+    public RubiksCube1D clone() {
+        RubiksCube1D copy = (RubiksCube1D) super.clone();
+        copy.cube = cube.clone();
+        return copy;
+    }
+
+    @Override
+    public void copyFrom(RubiksCube other) {
+        checkSameRepresentation(other);
+        System.arraycopy(((RubiksCube1D) other).cube, 0, cube, 0, cube.length);
+        hash = ((RubiksCube1D) other).hash;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < 6; i++) {
+            Arrays.fill(cube, i * 9, i * 9 + 9, getColorLetter(Color.values()[i]));
+        }
+        hash = Zobrist.hash(cube);
     }
 
     // Overriding equals method to compare two cubes
@@ -202,15 +214,21 @@ public class RubiksCube1D extends RubiksCube {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
         RubiksCube1D other = (RubiksCube1D) obj;
+        if (hash != other.hash) return false;
         for (int i = 0; i < 54; i++) {
             if (cube[i] != other.cube[i]) return false;
         }
         return true;
     }
 
-    // Overriding hashCode method
+    // Overriding hashCode method, folding the Zobrist hash instead of hashing the 54 stickers
     @Override
     public int hashCode() {
-        return Arrays.hashCode(cube);
+        return Long.hashCode(hash);
+    }
+
+    @Override
+    public long getStateHash() {
+        return hash;
     }
 }
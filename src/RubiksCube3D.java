@@ -4,26 +4,116 @@ import java.util.Objects;
 public class RubiksCube3D extends RubiksCube {
     private static final int ROW = 3;
     private static final int COL = 3;
-    private final char[][][] cube = new char[6][3][3];
+    private char[][][] cube = new char[6][3][3];
 
-    private void swap(char[][] face, int r1, int c1, int r2, int c2) {
-        char temp = face[r1][c1];
-        face[r1][c1] = face[r2][c2];
-        face[r2][c2] = temp;
-    }
+    // Zobrist hash of the stickers, numbered face * 9 + row * 3 + col, kept up to date by every move
+    private long hash;
 
-    public void rotateFace(int faceIndex) {
-        for (int row = 0; row < ROW; row++) {
-            for (int col = row; col < 3; col++) {
-                swap(cube[faceIndex], row, col, col, row);
+    private static final int[][] U_CYCLES = toFaceRowCol(StickerCycles.U);
+    private static final int[][] L_CYCLES = toFaceRowCol(StickerCycles.L);
+    private static final int[][] F_CYCLES = toFaceRowCol(StickerCycles.F);
+    private static final int[][] R_CYCLES = toFaceRowCol(StickerCycles.R);
+    private static final int[][] B_CYCLES = toFaceRowCol(StickerCycles.B);
+    private static final int[][] D_CYCLES = toFaceRowCol(StickerCycles.D);
+
+    // Constructor to initialize the cube in the solved state
+    public RubiksCube3D() {
+        for (Face face : Face.values()) {
+            char colorLetter = getColorLetter(solvedConfig(face));
+            for (int row = 0; row < ROW; row++) {
+                for (int col = 0; col < COL; col++) {
+                    cube[getIndex(face)][row][col] = colorLetter;
+                }
             }
         }
-        // Reverse every row
+        hash = computeHash();
+    }
+
+    private long computeFaceHash(int faceIndex) {
+        long faceHash = 0;
         for (int row = 0; row < ROW; row++) {
-            for (int col = 0; col < COL / 2; col++) {
-                swap(cube[faceIndex], row, col, row, COL - 1 - col);
+            for (int col = 0; col < COL; col++) {
+                faceHash ^= Zobrist.key(faceIndex * ROW * COL + row * COL + col, cube[faceIndex][row][col]);
             }
         }
+        return faceHash;
+    }
+
+    private long computeHash() {
+        long cubeHash = 0;
+        for (int faceIndex = 0; faceIndex < 6; faceIndex++) {
+            cubeHash ^= computeFaceHash(faceIndex);
+        }
+        return cubeHash;
+    }
+
+    // Splits the sticker numbers of StickerCycles into {faces, rows, cols, stickers}
+    // so moves index the 3D array directly and still know the sticker numbers for the hash
+    private static int[][] toFaceRowCol(int[] cycles) {
+        int[][] split = new int[4][cycles.length];
+        for (int i = 0; i < cycles.length; i++) {
+            split[0][i] = cycles[i] / (ROW * COL);
+            split[1][i] = cycles[i] / COL % ROW;
+            split[2][i] = cycles[i] % COL;
+            split[3][i] = cycles[i];
+        }
+        return split;
+    }
+
+    private char get(int[][] cycles, int i) {
+        return cube[cycles[0][i]][cycles[1][i]][cycles[2][i]];
+    }
+
+    private void set(int[][] cycles, int i, char color) {
+        cube[cycles[0][i]][cycles[1][i]][cycles[2][i]] = color;
+    }
+
+    // XOR of the keys of the four stickers of a cycle holding the given colours
+    private static long cycleKeys(int[][] cycles, int i, char c0, char c1, char c2, char c3) {
+        int[] stickers = cycles[3];
+        return Zobrist.key(stickers[i], c0) ^ Zobrist.key(stickers[i + 1], c1)
+                ^ Zobrist.key(stickers[i + 2], c2) ^ Zobrist.key(stickers[i + 3], c3);
+    }
+
+    // Turns a face 90 degrees clockwise in place, moving every sticker one step along its cycle.
+    // The hash swaps the keys of the old colours on the cycle for the keys of the new ones.
+    private void turn(int[][] cycles) {
+        long delta = 0;
+        for (int i = 0; i < cycles[0].length; i += 4) {
+            char c0 = get(cycles, i), c1 = get(cycles, i + 1), c2 = get(cycles, i + 2), c3 = get(cycles, i + 3);
+            set(cycles, i, c3);
+            set(cycles, i + 1, c0);
+            set(cycles, i + 2, c1);
+            set(cycles, i + 3, c2);
+            delta ^= cycleKeys(cycles, i, c0, c1, c2, c3) ^ cycleKeys(cycles, i, c3, c0, c1, c2);
+        }
+        hash ^= delta;
+    }
+
+    private void turnPrime(int[][] cycles) {
+        long delta = 0;
+        for (int i = 0; i < cycles[0].length; i += 4) {
+            char c0 = get(cycles, i), c1 = get(cycles, i + 1), c2 = get(cycles, i + 2), c3 = get(cycles, i + 3);
+            set(cycles, i, c1);
+            set(cycles, i + 1, c2);
+            set(cycles, i + 2, c3);
+            set(cycles, i + 3, c0);
+            delta ^= cycleKeys(cycles, i, c0, c1, c2, c3) ^ cycleKeys(cycles, i, c1, c2, c3, c0);
+        }
+        hash ^= delta;
+    }
+
+    private void turn2(int[][] cycles) {
+        long delta = 0;
+        for (int i = 0; i < cycles[0].length; i += 4) {
+            char c0 = get(cycles, i), c1 = get(cycles, i + 1), c2 = get(cycles, i + 2), c3 = get(cycles, i + 3);
+            set(cycles, i, c2);
+            set(cycles, i + 1, c3);
+            set(cycles, i + 2, c0);
+            set(cycles, i + 3, c1);
+            delta ^= cycleKeys(cycles, i, c0, c1, c2, c3) ^ cycleKeys(cycles, i, c2, c3, c0, c1);
+        }
+        hash ^= delta;
     }
 
     private int getIndex(Face face) {
@@ -78,201 +168,92 @@ public class RubiksCube3D extends RubiksCube {
 
     @Override
     public void f() {
-        this.rotateFace(getIndex(Face.FRONT));
-        char[] upFaceLastRow = new char[3];
-        for (int index = 0; index < 3; index++) {
-            upFaceLastRow[index] = cube[getIndex(Face.UP)][2][index];
-            cube[getIndex(Face.UP)][2][index] = cube[getIndex(Face.LEFT)][2 - index][2];
-        }
-        char[] rightFaceFirstCol = new char[3];
-        for (int index = 0; index < 3; index++) {
-            rightFaceFirstCol[index] = cube[getIndex(Face.RIGHT)][index][0];
-            cube[getIndex(Face.RIGHT)][index][0] = upFaceLastRow[index];
-        }
-        char[] downFirstRow = new char[3];
-        for (int index = 0; index < 3; index++) {
-            downFirstRow[index] = cube[getIndex(Face.DOWN)][0][index];
-            cube[getIndex(Face.DOWN)][0][index] = rightFaceFirstCol[2 - index];
-        }
-        for (int index = 0; index < 3; index++) {
-            cube[getIndex(Face.LEFT)][index][2] = downFirstRow[index];
-        }
+        turn(F_CYCLES);
     }
 
+    @Override
     public void fPrime() {
-        f();
-        f();
-        f();
+        turnPrime(F_CYCLES);
     }
 
+    @Override
     public void f2() {
-        f();
-        f();
+        turn2(F_CYCLES);
     }
 
+    @Override
     public void b() {
-        this.rotateFace(getIndex(Face.BOTTOM));
-        char[] upFaceFirstRow = new char[3];
-        for (int index = 0; index < 3; index++) {
-            upFaceFirstRow[index] = cube[getIndex(Face.UP)][0][index];
-            cube[getIndex(Face.UP)][0][index] = cube[getIndex(Face.RIGHT)][index][2];
-        }
-        char[] leftFaceFirstCol = new char[3];
-        for (int index = 0; index < 3; index++) {
-            leftFaceFirstCol[index] = cube[getIndex(Face.LEFT)][index][0];
-            cube[getIndex(Face.LEFT)][index][0] = upFaceFirstRow[2 - index];
-        }
-        char[] downLastRow = new char[3];
-        for (int index = 0; index < 3; index++) {
-            downLastRow[index] = cube[getIndex(Face.DOWN)][2][index];
-            cube[getIndex(Face.DOWN)][2][index] = leftFaceFirstCol[index];
-        }
-        for (int index = 0; index < 3; index++) {
-            cube[getIndex(Face.RIGHT)][index][2] = downLastRow[2 - index];
-        }
+        turn(B_CYCLES);
     }
 
+    @Override
     public void bPrime() {
-        b();
-        b();
-        b();
+        turnPrime(B_CYCLES);
     }
 
+    @Override
     public void b2() {
-        b();
-        b();
+        turn2(B_CYCLES);
     }
 
+    @Override
     public void u() {
-        this.rotateFace(getIndex(Face.UP));
-        char[] frontFirstRow = new char[3];
-        for (int index = 0; index < 3; index++) {
-            frontFirstRow[index] = cube[getIndex(Face.FRONT)][0][index];
-            cube[getIndex(Face.FRONT)][0][index] = cube[getIndex(Face.RIGHT)][0][index];
-        }
-        char[] backFirstRow = new char[3];
-        for (int index = 0; index < 3; index++) {
-            backFirstRow[index] = cube[getIndex(Face.BOTTOM)][0][index];
-            cube[getIndex(Face.BOTTOM)][0][index] = frontFirstRow[index];
-        }
-        char[] leftFirstRow = new char[3];
-        for (int index = 0; index < 3; index++) {
-            leftFirstRow[index] = cube[getIndex(Face.LEFT)][0][index];
-            cube[getIndex(Face.LEFT)][0][index] = backFirstRow[index];
-        }
-        for (int index = 0; index < 3; index++) {
-            cube[getIndex(Face.RIGHT)][0][index] = leftFirstRow[index];
-        }
+        turn(U_CYCLES);
     }
 
+    @Override
     public void uPrime() {
-        u();
-        u();
-        u();
+        turnPrime(U_CYCLES);
     }
 
+    @Override
     public void u2() {
-        u();
-        u();
+        turn2(U_CYCLES);
     }
 
+    @Override
     public void d() {
-        this.rotateFace(getIndex(Face.DOWN));
-        char[] frontLastRow = new char[3];
-        for (int index = 0; index < 3; index++) {
-            frontLastRow[index] = cube[getIndex(Face.FRONT)][2][index];
-            cube[getIndex(Face.FRONT)][2][index] = cube[getIndex(Face.LEFT)][2][index];
-        }
-        char[] backLastRow = new char[3];
-        for (int index = 0; index < 3; index++) {
-            backLastRow[index] = cube[getIndex(Face.BOTTOM)][2][index];
-            cube[getIndex(Face.BOTTOM)][2][index] = frontLastRow[index];
-        }
-        char[] rightLastRow = new char[3];
-        for (int index = 0; index < 3; index++) {
-            rightLastRow[index] = cube[getIndex(Face.RIGHT)][2][index];
-            cube[getIndex(Face.RIGHT)][2][index] = backLastRow[index];
-        }
-        for (int index = 0; index < 3; index++) {
-            cube[getIndex(Face.LEFT)][2][index] = rightLastRow[index];
-        }
+        turn(D_CYCLES);
     }
 
+    @Override
     public void dPrime() {
-        d();
-        d();
-        d();
+        turnPrime(D_CYCLES);
     }
 
+    @Override
     public void d2() {
-        d();
-        d();
+        turn2(D_CYCLES);
     }
 
+    @Override
     public void l() {
-        this.rotateFace(getIndex(Face.LEFT));
-        char[] upFirstCol = new char[3];
-        for (int index = 0; index < 3; index++) {
-            upFirstCol[index] = cube[getIndex(Face.UP)][index][0];
-            cube[getIndex(Face.UP)][index][0] = cube[getIndex(Face.FRONT)][index][0];
-        }
-        char[] downFirstCol = new char[3];
-        for (int index = 0; index < 3; index++) {
-            downFirstCol[index] = cube[getIndex(Face.DOWN)][index][0];
-            cube[getIndex(Face.DOWN)][index][0] = upFirstCol[index];
-        }
-        char[] backFirstCol = new char[3];
-        for (int index = 0; index < 3; index++) {
-            backFirstCol[index] = cube[getIndex(Face.BOTTOM)][index][0];
-            cube[getIndex(Face.BOTTOM)][index][0] = downFirstCol[2 - index];
-        }
-        for (int index = 0; index < 3; index++) {
-            cube[getIndex(Face.FRONT)][index][0] = backFirstCol[2 - index];
-        }
+        turn(L_CYCLES);
     }
 
+    @Override
     public void lPrime() {
-        l();
-        l();
-        l();
+        turnPrime(L_CYCLES);
     }
 
+    @Override
     public void l2() {
-        l();
-        l();
+        turn2(L_CYCLES);
     }
 
+    @Override
     public void r() {
-        this.rotateFace(getIndex(Face.RIGHT));
-        char[] upLastCol = new char[3];
-        for (int index = 0; index < 3; index++) {
-            upLastCol[index] = cube[getIndex(Face.UP)][index][2];
-            cube[getIndex(Face.UP)][index][2] = cube[getIndex(Face.FRONT)][index][2];
-        }
-        char[] downLastCol = new char[3];
-        for (int index = 0; index < 3; index++) {
-            downLastCol[index] = cube[getIndex(Face.DOWN)][index][2];
-            cube[getIndex(Face.DOWN)][index][2] = upLastCol[index];
-        }
-        char[] backLastCol = new char[3];
-        for (int index = 0; index < 3; index++) {
-            backLastCol[index] = cube[getIndex(Face.BOTTOM)][index][2];
-            cube[getIndex(Face.BOTTOM)][index][2] = downLastCol[2 - index];
-        }
-        for (int index = 0; index < 3; index++) {
-            cube[getIndex(Face.FRONT)][index][2] = backLastCol[2 - index];
-        }
+        turn(R_CYCLES);
     }
 
+    @Override
     public void rPrime() {
-        r();
-        r();
-        r();
+        turnPrime(R_CYCLES);
     }
 
+    @Override
     public void r2() {
-        r();
-        r();
+        turn2(R_CYCLES);
     }
 
     public String getCornerColorString(int ind) {
@@ -376,17 +357,151 @@ public class RubiksCube3D extends RubiksCube {
         }
     }
 
+    public String getEdgeColorString(int ind) {
+        String str = "";
+        switch (ind) {
+            case 0: // UF
+                str += getColorLetter(getColor(Face.UP, 2, 1));
+                str += getColorLetter(getColor(Face.FRONT, 0, 1));
+                break;
+            case 1: // UL
+                str += getColorLetter(getColor(Face.UP, 1, 0));
+                str += getColorLetter(getColor(Face.LEFT, 0, 1));
+                break;
+            case 2: // UB
+                str += getColorLetter(getColor(Face.UP, 0, 1));
+                str += getColorLetter(getColor(Face.BOTTOM, 0, 1));
+                break;
+            case 3: // UR
+                str += getColorLetter(getColor(Face.UP, 1, 2));
+                str += getColorLetter(getColor(Face.RIGHT, 0, 1));
+                break;
+            case 4: // DF
+                str += getColorLetter(getColor(Face.DOWN, 0, 1));
+                str += getColorLetter(getColor(Face.FRONT, 2, 1));
+                break;
+            case 5: // DL
+                str += getColorLetter(getColor(Face.DOWN, 1, 0));
+                str += getColorLetter(getColor(Face.LEFT, 2, 1));
+                break;
+            case 6: // DB
+                str += getColorLetter(getColor(Face.DOWN, 2, 1));
+                str += getColorLetter(getColor(Face.BOTTOM, 2, 1));
+                break;
+            case 7: // DR
+                str += getColorLetter(getColor(Face.DOWN, 1, 2));
+                str += getColorLetter(getColor(Face.RIGHT, 2, 1));
+                break;
+            case 8: // FR
+                str += getColorLetter(getColor(Face.FRONT, 1, 2));
+                str += getColorLetter(getColor(Face.RIGHT, 1, 0));
+                break;
+            case 9: // FL
+                str += getColorLetter(getColor(Face.FRONT, 1, 0));
+                str += getColorLetter(getColor(Face.LEFT, 1, 2));
+                break;
+            case 10: // BL
+                str += getColorLetter(getColor(Face.BOTTOM, 1, 2));
+                str += getColorLetter(getColor(Face.LEFT, 1, 0));
+                break;
+            case 11: // BR
+                str += getColorLetter(getColor(Face.BOTTOM, 1, 0));
+                str += getColorLetter(getColor(Face.RIGHT, 1, 2));
+                break;
+        }
+        return str;
+    }
+
+    // Edge cubie at a position, numbered like the positions of getEdgeColorString
+    public int getEdgeIndex(int ind) {
+        String edge = getEdgeColorString(ind);
+        boolean front = edge.indexOf('R') >= 0;
+        boolean back = edge.indexOf('O') >= 0;
+        boolean left = edge.indexOf('G') >= 0;
+
+        int layer;
+        if (edge.indexOf('W') >= 0) {
+            layer = 0;
+        } else if (edge.indexOf('Y') >= 0) {
+            layer = 4;
+        } else if (front) {
+            return left ? 9 : 8;
+        } else {
+            return left ? 10 : 11;
+        }
+
+        if (front) return layer;
+        if (left) return layer + 1;
+        if (back) return layer + 2;
+        return layer + 3;
+    }
+
+    // 0 when the U/D colour, or the F/B colour of a middle-layer edge, sits in the first sticker of the position
+    public int getEdgeOrientation(int ind) {
+        String edge = getEdgeColorString(ind);
+        char first = edge.charAt(0);
+        if (first == 'W' || first == 'Y') {
+            return 0;
+        }
+        char second = edge.charAt(1);
+        if (second == 'W' || second == 'Y') {
+            return 1;
+        }
+        return first == 'R' || first == 'O' ? 0 : 1;
+    }
+
+    @Override
+    public RubiksCube3D clone() {
+        RubiksCube3D copy = (RubiksCube3D) super.clone();
+        copy.cube = new char[6][ROW][];
+        for (int face = 0; face < 6; face++) {
+            for (int row = 0; row < ROW; row++) {
+                copy.cube[face][row] = cube[face][row].clone();
+            }
+        }
+        return copy;
+    }
+
+    @Override
+    public void copyFrom(RubiksCube other) {
+        checkSameRepresentation(other);
+        char[][][] source = ((RubiksCube3D) other).cube;
+        for (int face = 0; face < 6; face++) {
+            for (int row = 0; row < ROW; row++) {
+                System.arraycopy(source[face][row], 0, cube[face][row], 0, COL);
+            }
+        }
+        hash = ((RubiksCube3D) other).hash;
+    }
+
+    @Override
+    public void reset() {
+        for (Face face : Face.values()) {
+            char colorLetter = getColorLetter(solvedConfig(face));
+            for (int row = 0; row < ROW; row++) {
+                Arrays.fill(cube[getIndex(face)][row], colorLetter);
+            }
+        }
+        hash = computeHash();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         RubiksCube3D that = (RubiksCube3D) o;
-        return Objects.deepEquals(cube, that.cube);
+        return hash == that.hash && Objects.deepEquals(cube, that.cube);
     }
 
+    // Folds the Zobrist hash instead of hashing the 54 stickers
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(cube);
+        return Long.hashCode(hash);
+    }
+
+    @Override
+    public long getStateHash() {
+        return hash;
     }
 
     @Override
@@ -1,11 +1,14 @@
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
 public class RubiksCubeBitboard extends RubiksCube {
 
-    private final long[] bitboard = new long[6];
+    private long[] bitboard = new long[6];
     private final long[] solvedSideConfig = new long[6];
+    // Written by CompiledSequence.applyTo and then swapped with bitboard
+    private long[] spare = new long[6];
 
     private static final int[][] arr = {
             {0, 1, 2},
@@ -15,6 +18,7 @@ public class RubiksCubeBitboard extends RubiksCube {
 
     private static final long ONE_8 = (1L << 8) - 1;
     private static final long ONE_24 = (1L << 24) - 1;
+    private static final long BOTTOM_ROW = ONE_24 << (8 * 4);
 
     public RubiksCubeBitboard() {
         for (int side = 0; side < 6; side++) {
@@ -57,6 +61,14 @@ public class RubiksCubeBitboard extends RubiksCube {
         bitboard[ind] = (bitboard[ind] << 16) | (side);
     }
 
+    private void rotateFacePrime(int ind) {
+        bitboard[ind] = Long.rotateRight(bitboard[ind], 16);
+    }
+
+    private void rotateFace2(int ind) {
+        bitboard[ind] = Long.rotateLeft(bitboard[ind], 32);
+    }
+
     private void rotateSide(int s1, int s1_1, int s1_2, int s1_3, int s2, int s2_1, int s2_2, int s2_3) {
         long clr1 = (bitboard[s2] & (ONE_8 << (8 * s2_1))) >> (8 * s2_1);
         long clr2 = (bitboard[s2] & (ONE_8 << (8 * s2_2))) >> (8 * s2_2);
@@ -67,6 +79,24 @@ public class RubiksCubeBitboard extends RubiksCube {
         bitboard[s1] = (bitboard[s1] & ~(ONE_8 << (8 * s1_3))) | (clr3 << (8 * s1_3));
     }
 
+    private void swapSide(int s1, int s1_1, int s1_2, int s1_3, int s2, int s2_1, int s2_2, int s2_3) {
+        long clr1 = (bitboard[s1] & (ONE_8 << (8 * s1_1))) >> (8 * s1_1);
+        long clr2 = (bitboard[s1] & (ONE_8 << (8 * s1_2))) >> (8 * s1_2);
+        long clr3 = (bitboard[s1] & (ONE_8 << (8 * s1_3))) >> (8 * s1_3);
+
+        this.rotateSide(s1, s1_1, s1_2, s1_3, s2, s2_1, s2_2, s2_3);
+
+        bitboard[s2] = (bitboard[s2] & ~(ONE_8 << (8 * s2_1))) | (clr1 << (8 * s2_1));
+        bitboard[s2] = (bitboard[s2] & ~(ONE_8 << (8 * s2_2))) | (clr2 << (8 * s2_2));
+        bitboard[s2] = (bitboard[s2] & ~(ONE_8 << (8 * s2_3))) | (clr3 << (8 * s2_3));
+    }
+
+    private void swapRows(int s1, int s2, long mask) {
+        long temp = bitboard[s1] & mask;
+        bitboard[s1] = (bitboard[s1] & ~mask) | (bitboard[s2] & mask);
+        bitboard[s2] = (bitboard[s2] & ~mask) | temp;
+    }
+
     @Override
     public void u() {
         this.rotateFace(Face.UP.ordinal());
@@ -79,15 +109,19 @@ public class RubiksCubeBitboard extends RubiksCube {
 
     @Override
     public void uPrime() {
-        u();
-        u();
-        u();
+        this.rotateFacePrime(Face.UP.ordinal());
+        long temp = bitboard[Face.FRONT.ordinal()] & ONE_24;
+        bitboard[Face.FRONT.ordinal()] = (bitboard[Face.FRONT.ordinal()] & ~ONE_24) | (bitboard[Face.LEFT.ordinal()] & ONE_24);
+        bitboard[Face.LEFT.ordinal()] = (bitboard[Face.LEFT.ordinal()] & ~ONE_24) | (bitboard[Face.BOTTOM.ordinal()] & ONE_24);
+        bitboard[Face.BOTTOM.ordinal()] = (bitboard[Face.BOTTOM.ordinal()] & ~ONE_24) | (bitboard[Face.RIGHT.ordinal()] & ONE_24);
+        bitboard[Face.RIGHT.ordinal()] = (bitboard[Face.RIGHT.ordinal()] & ~ONE_24) | temp;
     }
 
     @Override
     public void u2() {
-        u();
-        u();
+        this.rotateFace2(Face.UP.ordinal());
+        this.swapRows(Face.FRONT.ordinal(), Face.BOTTOM.ordinal(), ONE_24);
+        this.swapRows(Face.LEFT.ordinal(), Face.RIGHT.ordinal(), ONE_24);
     }
 
     @Override
@@ -110,15 +144,26 @@ public class RubiksCubeBitboard extends RubiksCube {
 
     @Override
     public void lPrime() {
-        l();
-        l();
-        l();
+        this.rotateFacePrime(Face.LEFT.ordinal());
+
+        long clr1 = (bitboard[Face.FRONT.ordinal()] & (ONE_8 << (8 * 0))) >> (8 * 0);
+        long clr2 = (bitboard[Face.FRONT.ordinal()] & (ONE_8 << (8 * 6))) >> (8 * 6);
+        long clr3 = (bitboard[Face.FRONT.ordinal()] & (ONE_8 << (8 * 7))) >> (8 * 7);
+
+        this.rotateSide(Face.FRONT.ordinal(), 0, 7, 6, Face.DOWN.ordinal(), 0, 7, 6);
+        this.rotateSide(Face.DOWN.ordinal(), 0, 7, 6, Face.BOTTOM.ordinal(), 4, 3, 2);
+        this.rotateSide(Face.BOTTOM.ordinal(), 4, 3, 2, Face.UP.ordinal(), 0, 7, 6);
+
+        bitboard[Face.UP.ordinal()] = (bitboard[Face.UP.ordinal()] & ~(ONE_8 << (8 * 0))) | (clr1 << (8 * 0));
+        bitboard[Face.UP.ordinal()] = (bitboard[Face.UP.ordinal()] & ~(ONE_8 << (8 * 6))) | (clr2 << (8 * 6));
+        bitboard[Face.UP.ordinal()] = (bitboard[Face.UP.ordinal()] & ~(ONE_8 << (8 * 7))) | (clr3 << (8 * 7));
     }
 
     @Override
     public void l2() {
-        l();
-        l();
+        this.rotateFace2(Face.LEFT.ordinal());
+        this.swapSide(Face.FRONT.ordinal(), 0, 7, 6, Face.BOTTOM.ordinal(), 4, 3, 2);
+        this.swapSide(Face.UP.ordinal(), 0, 7, 6, Face.DOWN.ordinal(), 0, 7, 6);
     }
 
     @Override
@@ -141,15 +186,26 @@ public class RubiksCubeBitboard extends RubiksCube {
 
     @Override
     public void fPrime() {
-        f();
-        f();
-        f();
+        this.rotateFacePrime(Face.FRONT.ordinal());
+
+        long clr1 = (bitboard[Face.UP.ordinal()] & (ONE_8 << (8 * 4))) >> (8 * 4);
+        long clr2 = (bitboard[Face.UP.ordinal()] & (ONE_8 << (8 * 5))) >> (8 * 5);
+        long clr3 = (bitboard[Face.UP.ordinal()] & (ONE_8 << (8 * 6))) >> (8 * 6);
+
+        this.rotateSide(Face.UP.ordinal(), 4, 5, 6, Face.RIGHT.ordinal(), 6, 7, 0);
+        this.rotateSide(Face.RIGHT.ordinal(), 6, 7, 0, Face.DOWN.ordinal(), 0, 1, 2);
+        this.rotateSide(Face.DOWN.ordinal(), 0, 1, 2, Face.LEFT.ordinal(), 2, 3, 4);
+
+        bitboard[Face.LEFT.ordinal()] = (bitboard[Face.LEFT.ordinal()] & ~(ONE_8 << (8 * 2))) | (clr1 << (8 * 2));
+        bitboard[Face.LEFT.ordinal()] = (bitboard[Face.LEFT.ordinal()] & ~(ONE_8 << (8 * 3))) | (clr2 << (8 * 3));
+        bitboard[Face.LEFT.ordinal()] = (bitboard[Face.LEFT.ordinal()] & ~(ONE_8 << (8 * 4))) | (clr3 << (8 * 4));
     }
 
     @Override
     public void f2() {
-        this.f();
-        f();
+        this.rotateFace2(Face.FRONT.ordinal());
+        this.swapSide(Face.UP.ordinal(), 4, 5, 6, Face.DOWN.ordinal(), 0, 1, 2);
+        this.swapSide(Face.LEFT.ordinal(), 2, 3, 4, Face.RIGHT.ordinal(), 6, 7, 0);
     }
 
     @Override
@@ -162,70 +218,62 @@ public class RubiksCubeBitboard extends RubiksCube {
 
         this.rotateSide(Face.UP.ordinal(), 2, 3, 4, Face.FRONT.ordinal(), 2, 3, 4);
         this.rotateSide(Face.FRONT.ordinal(), 2, 3, 4, Face.DOWN.ordinal(), 2, 3, 4);
-        this.rotateSide(Face.DOWN.ordinal(), 2, 3, 4, Face.BOTTOM.ordinal(), 7, 6, 0);
+        this.rotateSide(Face.DOWN.ordinal(), 2, 3, 4, Face.BOTTOM.ordinal(), 6, 7, 0);
 
-        bitboard[Face.BOTTOM.ordinal()] = (bitboard[Face.BOTTOM.ordinal()] & ~(ONE_8 << (8 * 7))) | (clr1 << (8 * 7));
-        bitboard[Face.BOTTOM.ordinal()] = (bitboard[Face.BOTTOM.ordinal()] & ~(ONE_8 << (8 * 6))) | (clr2 << (8 * 6));
+        bitboard[Face.BOTTOM.ordinal()] = (bitboard[Face.BOTTOM.ordinal()] & ~(ONE_8 << (8 * 6))) | (clr1 << (8 * 6));
+        bitboard[Face.BOTTOM.ordinal()] = (bitboard[Face.BOTTOM.ordinal()] & ~(ONE_8 << (8 * 7))) | (clr2 << (8 * 7));
         bitboard[Face.BOTTOM.ordinal()] = (bitboard[Face.BOTTOM.ordinal()] & ~(ONE_8 << (8 * 0))) | (clr3 << (8 * 0));
     }
 
     @Override
     public void rPrime() {
-        r();
-        r();
-        r();
+        this.rotateFacePrime(Face.RIGHT.ordinal());
+
+        long clr1 = (bitboard[Face.UP.ordinal()] & (ONE_8 << (8 * 2))) >> (8 * 2);
+        long clr2 = (bitboard[Face.UP.ordinal()] & (ONE_8 << (8 * 3))) >> (8 * 3);
+        long clr3 = (bitboard[Face.UP.ordinal()] & (ONE_8 << (8 * 4))) >> (8 * 4);
+
+        this.rotateSide(Face.UP.ordinal(), 2, 3, 4, Face.BOTTOM.ordinal(), 6, 7, 0);
+        this.rotateSide(Face.BOTTOM.ordinal(), 6, 7, 0, Face.DOWN.ordinal(), 2, 3, 4);
+        this.rotateSide(Face.DOWN.ordinal(), 2, 3, 4, Face.FRONT.ordinal(), 2, 3, 4);
+
+        bitboard[Face.FRONT.ordinal()] = (bitboard[Face.FRONT.ordinal()] & ~(ONE_8 << (8 * 2))) | (clr1 << (8 * 2));
+        bitboard[Face.FRONT.ordinal()] = (bitboard[Face.FRONT.ordinal()] & ~(ONE_8 << (8 * 3))) | (clr2 << (8 * 3));
+        bitboard[Face.FRONT.ordinal()] = (bitboard[Face.FRONT.ordinal()] & ~(ONE_8 << (8 * 4))) | (clr3 << (8 * 4));
     }
 
     @Override
     public void r2() {
-        this.r();
-        r();
+        this.rotateFace2(Face.RIGHT.ordinal());
+        this.swapSide(Face.UP.ordinal(), 2, 3, 4, Face.DOWN.ordinal(), 2, 3, 4);
+        this.swapSide(Face.FRONT.ordinal(), 2, 3, 4, Face.BOTTOM.ordinal(), 6, 7, 0);
     }
 
     @Override
     public void d() {
         this.rotateFace(Face.DOWN.ordinal());
-
-        // Define constants for masks and shifts
-        final long MASK_24_BITS = 0xFFFFFFL; // 24-bit mask
-        final int ROW_SHIFT = 48; // Shift to align with the correct 24-bit row (6 rows of 8 bits)
-
-        // Create the masks without causing overflow
-        long mask = 0xFFFFFFL; // Initial 24-bit mask
-        long clearMask = mask << ROW_SHIFT; // Shifted mask
-        long fullClearMask = ~(clearMask); // Negate to get the mask to clear the bits
-
-        // Extract the 24-bit rows for each face
-        long tempFrontRow = (bitboard[Face.FRONT.ordinal()] >> ROW_SHIFT) & MASK_24_BITS;
-        long leftRow = (bitboard[Face.LEFT.ordinal()] >> ROW_SHIFT) & MASK_24_BITS;
-        long bottomRow = (bitboard[Face.BOTTOM.ordinal()] >> ROW_SHIFT) & MASK_24_BITS;
-        long rightRow = (bitboard[Face.RIGHT.ordinal()] >> ROW_SHIFT) & MASK_24_BITS;
-
-        // Clear the rows on the target faces using the computed clear mask
-        bitboard[Face.FRONT.ordinal()] &= fullClearMask; // Clear the 24 bits on the front face
-        bitboard[Face.LEFT.ordinal()] &= fullClearMask;  // Clear the 24 bits on the left face
-        bitboard[Face.BOTTOM.ordinal()] &= fullClearMask; // Clear the 24 bits on the bottom face
-        bitboard[Face.RIGHT.ordinal()] &= fullClearMask;  // Clear the 24 bits on the right face
-
-        // Set the new rows in the target faces
-        bitboard[Face.FRONT.ordinal()] |= (leftRow << ROW_SHIFT);
-        bitboard[Face.LEFT.ordinal()] |= (bottomRow << ROW_SHIFT);
-        bitboard[Face.BOTTOM.ordinal()] |= (rightRow << ROW_SHIFT);
-        bitboard[Face.RIGHT.ordinal()] |= (tempFrontRow << ROW_SHIFT);
+        long temp = bitboard[Face.FRONT.ordinal()] & BOTTOM_ROW;
+        bitboard[Face.FRONT.ordinal()] = (bitboard[Face.FRONT.ordinal()] & ~BOTTOM_ROW) | (bitboard[Face.LEFT.ordinal()] & BOTTOM_ROW);
+        bitboard[Face.LEFT.ordinal()] = (bitboard[Face.LEFT.ordinal()] & ~BOTTOM_ROW) | (bitboard[Face.BOTTOM.ordinal()] & BOTTOM_ROW);
+        bitboard[Face.BOTTOM.ordinal()] = (bitboard[Face.BOTTOM.ordinal()] & ~BOTTOM_ROW) | (bitboard[Face.RIGHT.ordinal()] & BOTTOM_ROW);
+        bitboard[Face.RIGHT.ordinal()] = (bitboard[Face.RIGHT.ordinal()] & ~BOTTOM_ROW) | temp;
     }
 
-
     @Override
     public void dPrime() {
-        this.d();
-        d();
-        d();
+        this.rotateFacePrime(Face.DOWN.ordinal());
+        long temp = bitboard[Face.FRONT.ordinal()] & BOTTOM_ROW;
+        bitboard[Face.FRONT.ordinal()] = (bitboard[Face.FRONT.ordinal()] & ~BOTTOM_ROW) | (bitboard[Face.RIGHT.ordinal()] & BOTTOM_ROW);
+        bitboard[Face.RIGHT.ordinal()] = (bitboard[Face.RIGHT.ordinal()] & ~BOTTOM_ROW) | (bitboard[Face.BOTTOM.ordinal()] & BOTTOM_ROW);
+        bitboard[Face.BOTTOM.ordinal()] = (bitboard[Face.BOTTOM.ordinal()] & ~BOTTOM_ROW) | (bitboard[Face.LEFT.ordinal()] & BOTTOM_ROW);
+        bitboard[Face.LEFT.ordinal()] = (bitboard[Face.LEFT.ordinal()] & ~BOTTOM_ROW) | temp;
     }
 
     @Override
     public void d2() {
-        this.d();
-        d();
+        this.rotateFace2(Face.DOWN.ordinal());
+        this.swapRows(Face.FRONT.ordinal(), Face.BOTTOM.ordinal(), BOTTOM_ROW);
+        this.swapRows(Face.LEFT.ordinal(), Face.RIGHT.ordinal(), BOTTOM_ROW);
     }
 
     @Override
@@ -233,31 +281,84 @@ public class RubiksCubeBitboard extends RubiksCube {
         this.rotateFace(Face.BOTTOM.ordinal());
 
         long clr1 = (bitboard[Face.UP.ordinal()] & (ONE_8 << (8 * 0))) >> (8 * 0);
-        long clr2 = (bitboard[Face.UP.ordinal()] & (ONE_8 << (8 * 7))) >> (8 * 7);
-        long clr3 = (bitboard[Face.UP.ordinal()] & (ONE_8 << (8 * 6))) >> (8 * 6);
+        long clr2 = (bitboard[Face.UP.ordinal()] & (ONE_8 << (8 * 1))) >> (8 * 1);
+        long clr3 = (bitboard[Face.UP.ordinal()] & (ONE_8 << (8 * 2))) >> (8 * 2);
 
-        this.rotateSide(Face.UP.ordinal(), 0, 7, 6, Face.RIGHT.ordinal(), 4, 5, 6);
-        this.rotateSide(Face.RIGHT.ordinal(), 4, 5, 6, Face.DOWN.ordinal(), 4, 5, 6);
-        this.rotateSide(Face.DOWN.ordinal(), 4, 5, 6, Face.LEFT.ordinal(), 0, 1, 2);
+        this.rotateSide(Face.UP.ordinal(), 0, 1, 2, Face.RIGHT.ordinal(), 2, 3, 4);
+        this.rotateSide(Face.RIGHT.ordinal(), 2, 3, 4, Face.DOWN.ordinal(), 4, 5, 6);
+        this.rotateSide(Face.DOWN.ordinal(), 4, 5, 6, Face.LEFT.ordinal(), 6, 7, 0);
 
-        bitboard[Face.LEFT.ordinal()] = (bitboard[Face.LEFT.ordinal()] & ~(ONE_8 << (8 * 0))) | (clr1 << (8 * 0));
-        bitboard[Face.LEFT.ordinal()] = (bitboard[Face.LEFT.ordinal()] & ~(ONE_8 << (8 * 1))) | (clr2 << (8 * 1));
-        bitboard[Face.LEFT.ordinal()] = (bitboard[Face.LEFT.ordinal()] & ~(ONE_8 << (8 * 2))) | (clr3 << (8 * 2));
+        bitboard[Face.LEFT.ordinal()] = (bitboard[Face.LEFT.ordinal()] & ~(ONE_8 << (8 * 6))) | (clr1 << (8 * 6));
+        bitboard[Face.LEFT.ordinal()] = (bitboard[Face.LEFT.ordinal()] & ~(ONE_8 << (8 * 7))) | (clr2 << (8 * 7));
+        bitboard[Face.LEFT.ordinal()] = (bitboard[Face.LEFT.ordinal()] & ~(ONE_8 << (8 * 0))) | (clr3 << (8 * 0));
     }
 
     @Override
     public void bPrime() {
-        this.b();
-        b();
-        b();
+        this.rotateFacePrime(Face.BOTTOM.ordinal());
+
+        long clr1 = (bitboard[Face.UP.ordinal()] & (ONE_8 << (8 * 0))) >> (8 * 0);
+        long clr2 = (bitboard[Face.UP.ordinal()] & (ONE_8 << (8 * 1))) >> (8 * 1);
+        long clr3 = (bitboard[Face.UP.ordinal()] & (ONE_8 << (8 * 2))) >> (8 * 2);
+
+        this.rotateSide(Face.UP.ordinal(), 0, 1, 2, Face.LEFT.ordinal(), 6, 7, 0);
+        this.rotateSide(Face.LEFT.ordinal(), 6, 7, 0, Face.DOWN.ordinal(), 4, 5, 6);
+        this.rotateSide(Face.DOWN.ordinal(), 4, 5, 6, Face.RIGHT.ordinal(), 2, 3, 4);
+
+        bitboard[Face.RIGHT.ordinal()] = (bitboard[Face.RIGHT.ordinal()] & ~(ONE_8 << (8 * 2))) | (clr1 << (8 * 2));
+        bitboard[Face.RIGHT.ordinal()] = (bitboard[Face.RIGHT.ordinal()] & ~(ONE_8 << (8 * 3))) | (clr2 << (8 * 3));
+        bitboard[Face.RIGHT.ordinal()] = (bitboard[Face.RIGHT.ordinal()] & ~(ONE_8 << (8 * 4))) | (clr3 << (8 * 4));
     }
 
     @Override
     public void b2() {
-        this.b();
-        b();
+        this.rotateFace2(Face.BOTTOM.ordinal());
+        this.swapSide(Face.UP.ordinal(), 0, 1, 2, Face.DOWN.ordinal(), 4, 5, 6);
+        this.swapSide(Face.LEFT.ordinal(), 6, 7, 0, Face.RIGHT.ordinal(), 2, 3, 4);
+    }
+
+
+    // The solved configuration never changes, so only the stickers are copied
+    @Override
+    public RubiksCubeBitboard clone() {
+        RubiksCubeBitboard copy = (RubiksCubeBitboard) super.clone();
+        copy.bitboard = bitboard.clone();
+        copy.spare = new long[6];
+        return copy;
     }
 
+    @Override
+    public void copyFrom(RubiksCube other) {
+        checkSameRepresentation(other);
+        System.arraycopy(((RubiksCubeBitboard) other).bitboard, 0, bitboard, 0, bitboard.length);
+    }
+
+    @Override
+    public void reset() {
+        System.arraycopy(solvedSideConfig, 0, bitboard, 0, bitboard.length);
+    }
+
+    // Each face is one long, so mixing the six words costs no more than an incremental hash would
+    @Override
+    public long getStateHash() {
+        long hash = 0;
+        for (long side : bitboard) {
+            hash = mix(hash ^ side);
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(bitboard, ((RubiksCubeBitboard) o).bitboard);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(getStateHash());
+    }
 
     public void move(String move) {
         switch (move) {
@@ -293,4 +394,171 @@ public class RubiksCubeBitboard extends RubiksCube {
         }
         return moves;
     }
+
+    /**
+     * A move sequence compiled into a single permutation of the 48 stickers that moves can displace (the centres
+     * never move). Applying it to a cube takes one masked rotation per group of stickers that travel together from
+     * one face to another, a few dozen at most, whatever the length of the sequence.
+     * <p>
+     * The permutation is itself a bitboard whose bytes hold sticker positions instead of colours: the turns only
+     * move whole bytes around, so compiling a move costs the same as turning a cube. A cube with fixed centres is
+     * solved exactly when every sticker is back in place, so a scramble and a solution verify by checking that
+     * their composition is the identity.
+     * <p>
+     * Positions are numbered {@code face * 8 + index} with the faces in Face order and the indices of the bytes
+     * of a bitboard word, going around the face clockwise from the top-left corner.
+     */
+    public static final class CompiledSequence {
+        private static final long[] IDENTITY = new long[6];
+
+        static {
+            for (int face = 0; face < 6; face++) {
+                for (int index = 0; index < 8; index++) {
+                    IDENTITY[face] |= (long) (face * 8 + index) << (8 * index);
+                }
+            }
+        }
+
+        // Byte p holds the position whose sticker ends up at p
+        private final long[] sources;
+        private final int length;
+
+        // Groups of stickers moving from one face to another, rotated left by the same number of bits. Built on the
+        // first applyTo, sequences only composed or checked never need them. The record's final fields make it safe
+        // to publish through a race, where at worst two threads build the same groups.
+        private record Groups(int[] from, int[] to, int[] shift, long[] mask) {
+        }
+
+        private Groups groups;
+
+        // Constructor
+        private CompiledSequence(long[] sources, int length) {
+            this.sources = sources;
+            this.length = length;
+        }
+
+        /**
+         * Compiles a move sequence.
+         *
+         * @param moves The moves, in the order they are applied.
+         * @return The compiled sequence.
+         */
+        public static CompiledSequence compile(List<Move> moves) {
+            return new CompiledSequence(IDENTITY, 0).then(moves);
+        }
+
+        /**
+         * Compiles this sequence followed by more moves.
+         *
+         * @param moves The moves applied after this sequence.
+         * @return The compiled sequence.
+         */
+        public CompiledSequence then(List<Move> moves) {
+            RubiksCubeBitboard labels = trace(sources, moves);
+            return new CompiledSequence(labels.bitboard, length + moves.size());
+        }
+
+        /**
+         * Composes this sequence with another one applied after it.
+         *
+         * @param next The sequence applied after this one.
+         * @return The compiled sequence.
+         */
+        public CompiledSequence then(CompiledSequence next) {
+            long[] composed = new long[6];
+            for (int position = 0; position < 48; position++) {
+                composed[position >> 3] |= (long) getSource(sources, getSource(next.sources, position))
+                        << (8 * (position & 7));
+            }
+            return new CompiledSequence(composed, length + next.length);
+        }
+
+        private static int getSource(long[] sources, int position) {
+            return (int) (sources[position >> 3] >>> (8 * (position & 7))) & 0xFF;
+        }
+
+        // Turns a cube whose bytes hold positions instead of colours
+        private static RubiksCubeBitboard trace(long[] start, List<Move> moves) {
+            RubiksCubeBitboard labels = new RubiksCubeBitboard();
+            System.arraycopy(start, 0, labels.bitboard, 0, 6);
+            for (Move move : moves) {
+                labels.performMove(move);
+            }
+            return labels;
+        }
+
+        /**
+         * Applies the whole sequence to a cube at once.
+         *
+         * @param cube The cube to turn.
+         */
+        public void applyTo(RubiksCubeBitboard cube) {
+            Groups groups = this.groups;
+            if (groups == null) this.groups = groups = buildGroups();
+            long[] from = cube.bitboard;
+            long[] to = cube.spare;
+            Arrays.fill(to, 0);
+            int[] fromFace = groups.from();
+            int[] toFace = groups.to();
+            int[] shift = groups.shift();
+            long[] mask = groups.mask();
+            for (int group = 0; group < mask.length; group++) {
+                to[toFace[group]] |= Long.rotateLeft(from[fromFace[group]], shift[group]) & mask[group];
+            }
+            cube.bitboard = to;
+            cube.spare = from;
+        }
+
+        private Groups buildGroups() {
+            // Keyed by source face, target face and rotation in bytes
+            long[] masks = new long[6 * 6 * 8];
+            int count = 0;
+            for (int position = 0; position < 48; position++) {
+                int source = getSource(sources, position);
+                int shift = ((position & 7) - (source & 7)) & 7;
+                int key = ((source >> 3) * 6 + (position >> 3)) * 8 + shift;
+                if (masks[key] == 0) count++;
+                masks[key] |= ONE_8 << (8 * (position & 7));
+            }
+            int[] from = new int[count];
+            int[] to = new int[count];
+            int[] shift = new int[count];
+            long[] mask = new long[count];
+            int group = 0;
+            for (int key = 0; key < masks.length; key++) {
+                if (masks[key] == 0) continue;
+                from[group] = key / 48;
+                to[group] = key / 8 % 6;
+                shift[group] = 8 * (key % 8);
+                mask[group] = masks[key];
+                group++;
+            }
+            return new Groups(from, to, shift, mask);
+        }
+
+        // True if the sequence leaves every sticker in place
+        public boolean isIdentity() {
+            return Arrays.equals(sources, IDENTITY);
+        }
+
+        // Number of moves compiled into the sequence
+        public int getLength() {
+            return length;
+        }
+
+        /**
+         * Checks that a solution solves a scramble, without turning a coloured cube or compiling a sequence.
+         *
+         * @param scramble The moves applied to a solved cube.
+         * @param solution The moves applied after them.
+         * @return True if the solution brings the scrambled cube back to solved.
+         */
+        public static boolean isSolution(List<Move> scramble, List<Move> solution) {
+            RubiksCubeBitboard labels = trace(IDENTITY, scramble);
+            for (Move move : solution) {
+                labels.performMove(move);
+            }
+            return Arrays.equals(labels.bitboard, IDENTITY);
+        }
+    }
 }
@@ -0,0 +1,371 @@
+import java.util.Arrays;
+
+/**
+ * Cubie-level Rubik's Cube packed into two longs.
+ * Every position holds a 5-bit field: the cubie in the low bits (3 for corners, 4 for edges) and its
+ * orientation above it. Moves are applied through permutation tables derived once from RubiksCube3D,
+ * so both classes agree sticker for sticker. Positions follow CubieLayout.
+ */
+public class RubiksCubePacked extends RubiksCube {
+    private static final int FIELD = 5;
+    private static final long FIELD_MASK = (1L << FIELD) - 1;
+    private static final int CORNER_BITS = 3;
+    private static final int EDGE_BITS = 4;
+
+    private static final long SOLVED_CORNERS;
+    private static final long SOLVED_EDGES;
+
+    // Per move, the four positions that change: source shift | target shift << 8 | twist or flip << 16
+    private static final int[] cornerOperations = new int[18 * 4];
+    private static final int[] edgeOperations = new int[18 * 4];
+    private static final long[] cornerKeepMasks = new long[18];
+    private static final long[] edgeKeepMasks = new long[18];
+
+    // Adds a twist to a corner field: index is field << 2 | twist
+    private static final long[] TWIST = new long[32 * 4];
+
+    // Position type and slot of every sticker, indexed by [face][row * 3 + col]
+    private static final int[][] facelets = new int[6][9];
+    private static final int CENTER = -1;
+
+    // Colours of a solved cube, same as RubiksCube3D
+    private static final Color[] SOLVED_COLORS = new Color[6];
+
+    private long corners;
+    private long edges;
+
+    static {
+        long solvedCorners = 0;
+        for (int corner = 0; corner < CubieLayout.CORNERS; corner++) {
+            solvedCorners |= (long) corner << (FIELD * corner);
+        }
+        long solvedEdges = 0;
+        for (int edge = 0; edge < CubieLayout.EDGES; edge++) {
+            solvedEdges |= (long) edge << (FIELD * edge);
+        }
+        SOLVED_CORNERS = solvedCorners;
+        SOLVED_EDGES = solvedEdges;
+
+        for (int field = 0; field < 32; field++) {
+            int cubie = field & ((1 << CORNER_BITS) - 1);
+            int twist = field >>> CORNER_BITS;
+            for (int add = 0; add < 3; add++) {
+                TWIST[field << 2 | add] = cubie | ((long) ((twist + add) % 3) << CORNER_BITS);
+            }
+        }
+
+        RubiksCube3D solved = new RubiksCube3D();
+        for (Face face : Face.values()) {
+            SOLVED_COLORS[face.ordinal()] = solved.getColor(face, 1, 1);
+            Arrays.fill(facelets[face.ordinal()], CENTER);
+        }
+        for (int corner = 0; corner < CubieLayout.CORNERS; corner++) {
+            for (int slot = 0; slot < 3; slot++) {
+                int[] facelet = CubieLayout.CORNER_FACELETS[corner][slot];
+                facelets[facelet[0]][facelet[1] * 3 + facelet[2]] = corner * 4 + slot;
+            }
+        }
+        for (int edge = 0; edge < CubieLayout.EDGES; edge++) {
+            for (int slot = 0; slot < 2; slot++) {
+                int[] facelet = CubieLayout.EDGE_FACELETS[edge][slot];
+                facelets[facelet[0]][facelet[1] * 3 + facelet[2]] = 32 + edge * 4 + slot;
+            }
+        }
+
+        buildMoveTables();
+    }
+
+    // Applying each move to a solved RubiksCube3D shows where every cubie comes from and how it is turned
+    private static void buildMoveTables() {
+        int[] permutation = new int[CubieLayout.EDGES];
+        int[] orientation = new int[CubieLayout.EDGES];
+        Move[] allMoves = Move.values();
+        for (int move = 0; move < allMoves.length; move++) {
+            RubiksCube3D cube = new RubiksCube3D();
+            cube.performMove(allMoves[move]);
+
+            CubieLayout.readCorners(cube, permutation, orientation);
+            long keep = -1L;
+            int count = move * 4;
+            for (int corner = 0; corner < CubieLayout.CORNERS; corner++) {
+                if (permutation[corner] == corner && orientation[corner] == 0) continue;
+                cornerOperations[count++] = FIELD * permutation[corner] | FIELD * corner << 8 | orientation[corner] << 16;
+                keep &= ~(FIELD_MASK << (FIELD * corner));
+            }
+            cornerKeepMasks[move] = keep;
+
+            CubieLayout.readEdges(cube, permutation, orientation);
+            keep = -1L;
+            count = move * 4;
+            for (int edge = 0; edge < CubieLayout.EDGES; edge++) {
+                if (permutation[edge] == edge && orientation[edge] == 0) continue;
+                edgeOperations[count++] = FIELD * permutation[edge] | FIELD * edge << 8 | orientation[edge] << EDGE_BITS << 16;
+                keep &= ~(FIELD_MASK << (FIELD * edge));
+            }
+            edgeKeepMasks[move] = keep;
+        }
+    }
+
+    // Constructor to initialize the cube in the solved state
+    public RubiksCubePacked() {
+        this.corners = SOLVED_CORNERS;
+        this.edges = SOLVED_EDGES;
+    }
+
+    /**
+     * Constructor setting every cubie, in the layout read by CubieLayout.readCorners and readEdges.
+     *
+     * @param cornerPermutation The corner cubie at each corner position.
+     * @param cornerOrientation The twist (0-2) of each corner position.
+     * @param edgePermutation   The edge cubie at each edge position.
+     * @param edgeOrientation   The flip (0-1) of each edge position.
+     * @throws IllegalArgumentException If the cubies do not form a state that moves can reach.
+     */
+    public RubiksCubePacked(int[] cornerPermutation, int[] cornerOrientation, int[] edgePermutation,
+                            int[] edgeOrientation) {
+        int twist = 0;
+        for (int corner = 0; corner < CubieLayout.CORNERS; corner++) {
+            if (cornerOrientation[corner] < 0 || cornerOrientation[corner] > 2) {
+                throw new IllegalArgumentException("Invalid twist at corner position " + corner);
+            }
+            twist += cornerOrientation[corner];
+            corners |= (long) (cornerPermutation[corner] | cornerOrientation[corner] << CORNER_BITS) << (FIELD * corner);
+        }
+        int flip = 0;
+        for (int edge = 0; edge < CubieLayout.EDGES; edge++) {
+            if (edgeOrientation[edge] < 0 || edgeOrientation[edge] > 1) {
+                throw new IllegalArgumentException("Invalid flip at edge position " + edge);
+            }
+            flip += edgeOrientation[edge];
+            edges |= (long) (edgePermutation[edge] | edgeOrientation[edge] << EDGE_BITS) << (FIELD * edge);
+        }
+        if (twist % 3 != 0) throw new IllegalArgumentException("Corner twists do not add up to a whole turn");
+        if (flip % 2 != 0) throw new IllegalArgumentException("An odd number of edges is flipped");
+        if (getParity(cornerPermutation, CubieLayout.CORNERS) != getParity(edgePermutation, CubieLayout.EDGES)) {
+            throw new IllegalArgumentException("Corner and edge permutations differ in parity");
+        }
+    }
+
+    // 0 for an even permutation, 1 for an odd one
+    private static int getParity(int[] permutation, int size) {
+        boolean[] seen = new boolean[size];
+        int parity = 0;
+        for (int start = 0; start < size; start++) {
+            if (permutation[start] < 0 || permutation[start] >= size || seen[permutation[start]]) {
+                throw new IllegalArgumentException("Not a permutation of " + size + " cubies");
+            }
+            seen[permutation[start]] = true;
+        }
+        Arrays.fill(seen, false);
+        for (int start = 0; start < size; start++) {
+            // A cycle of length n is n - 1 transpositions
+            for (int position = start; !seen[position]; position = permutation[position]) {
+                seen[position] = true;
+                if (position != start) parity ^= 1;
+            }
+        }
+        return parity;
+    }
+
+    /**
+     * Gets the packed corners: 5 bits per position, the cubie in the low 3 bits and its twist above.
+     *
+     * @return The packed corner state.
+     */
+    public long getCorners() {
+        return corners;
+    }
+
+    /**
+     * Gets the packed edges: 5 bits per position, the cubie in the low 4 bits and its flip above.
+     *
+     * @return The packed edge state.
+     */
+    public long getEdges() {
+        return edges;
+    }
+
+    @Override
+    public long getCornerKey() {
+        return corners;
+    }
+
+    @Override
+    public long getEdgeKey() {
+        return edges;
+    }
+
+    private void apply(int move) {
+        long nextCorners = corners & cornerKeepMasks[move];
+        long nextEdges = edges & edgeKeepMasks[move];
+        for (int i = move * 4; i < move * 4 + 4; i++) {
+            int operation = cornerOperations[i];
+            int field = (int) (corners >>> (operation & 0xFF) & FIELD_MASK);
+            nextCorners |= TWIST[field << 2 | operation >>> 16] << (operation >>> 8 & 0xFF);
+
+            operation = edgeOperations[i];
+            long flipped = (edges >>> (operation & 0xFF) & FIELD_MASK) ^ (operation >>> 16);
+            nextEdges |= flipped << (operation >>> 8 & 0xFF);
+        }
+
+        corners = nextCorners;
+        edges = nextEdges;
+    }
+
+    @Override
+    public Color getColor(Face face, int row, int col) {
+        int facelet = facelets[face.ordinal()][row * 3 + col];
+        if (facelet == CENTER) return SOLVED_COLORS[face.ordinal()];
+        int slot = facelet & 3;
+        if (facelet < 32) {
+            int field = (int) (corners >>> (FIELD * (facelet >>> 2)) & FIELD_MASK);
+            int cubie = field & ((1 << CORNER_BITS) - 1);
+            int homeSlot = (slot - (field >>> CORNER_BITS) + 3) % 3;
+            return SOLVED_COLORS[CubieLayout.CORNER_FACELETS[cubie][homeSlot][0]];
+        }
+        int field = (int) (edges >>> (FIELD * ((facelet - 32) >>> 2)) & FIELD_MASK);
+        int cubie = field & ((1 << EDGE_BITS) - 1);
+        int homeSlot = slot ^ (field >>> EDGE_BITS);
+        return SOLVED_COLORS[CubieLayout.EDGE_FACELETS[cubie][homeSlot][0]];
+    }
+
+    @Override
+    public boolean isSolved() {
+        return corners == SOLVED_CORNERS && edges == SOLVED_EDGES;
+    }
+
+    @Override
+    public void performMove(Move move) {
+        apply(move.ordinal());
+    }
+
+    @Override
+    public void f() {
+        apply(Move.F.ordinal());
+    }
+
+    @Override
+    public void fPrime() {
+        apply(Move.FPRIME.ordinal());
+    }
+
+    @Override
+    public void f2() {
+        apply(Move.F2.ordinal());
+    }
+
+    @Override
+    public void u() {
+        apply(Move.U.ordinal());
+    }
+
+    @Override
+    public void uPrime() {
+        apply(Move.UPRIME.ordinal());
+    }
+
+    @Override
+    public void u2() {
+        apply(Move.U2.ordinal());
+    }
+
+    @Override
+    public void l() {
+        apply(Move.L.ordinal());
+    }
+
+    @Override
+    public void lPrime() {
+        apply(Move.LPRIME.ordinal());
+    }
+
+    @Override
+    public void l2() {
+        apply(Move.L2.ordinal());
+    }
+
+    @Override
+    public void r() {
+        apply(Move.R.ordinal());
+    }
+
+    @Override
+    public void rPrime() {
+        apply(Move.RPRIME.ordinal());
+    }
+
+    @Override
+    public void r2() {
+        apply(Move.R2.ordinal());
+    }
+
+    @Override
+    public void d() {
+        apply(Move.D.ordinal());
+    }
+
+    @Override
+    public void dPrime() {
+        apply(Move.DPRIME.ordinal());
+    }
+
+    @Override
+    public void d2() {
+        apply(Move.D2.ordinal());
+    }
+
+    @Override
+    public void b() {
+        apply(Move.B.ordinal());
+    }
+
+    @Override
+    public void bPrime() {
+        apply(Move.BPRIME.ordinal());
+    }
+
+    @Override
+    public void b2() {
+        apply(Move.B2.ordinal());
+    }
+
+    @Override
+    public void copyFrom(RubiksCube other) {
+        checkSameRepresentation(other);
+        RubiksCubePacked packed = (RubiksCubePacked) other;
+        corners = packed.corners;
+        edges = packed.edges;
+    }
+
+    @Override
+    public void reset() {
+        corners = SOLVED_CORNERS;
+        edges = SOLVED_EDGES;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RubiksCubePacked that = (RubiksCubePacked) o;
+        return corners == that.corners && edges == that.edges;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(getStateHash());
+    }
+
+    @Override
+    public long getStateHash() {
+        return mix(mix(corners) ^ edges);
+    }
+
+    @Override
+    public String toString() {
+        return "RubiksCubePacked{" +
+                "corners=" + Long.toHexString(corners) +
+                ", edges=" + Long.toHexString(edges) +
+                '}';
+    }
+}
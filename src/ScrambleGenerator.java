@@ -0,0 +1,162 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded scramble generator for reproducible benchmarks and load tests: the same seed always gives the same
+ * scrambles. Two kinds of scramble are offered:
+ * - random moves, where each move is drawn from MoveGenerator.getSuccessors of the one before, so no face is turned
+ *   twice in a row and opposite faces come in one order only; nothing cancels and every move counts
+ * - random states, drawn uniformly from the 43 quintillion reachable cubes by picking random coordinates, like the
+ *   official WCA scrambles. The scramble is the inverse of a KociembaSolver solution of the state, simplified, at most 22 moves.
+ * <p>
+ * The generator is not thread-safe. For parallel generation give every thread its own generator from split,
+ * which stays deterministic as long as the generators are split in the same order.
+ */
+public class ScrambleGenerator {
+    private static final RubiksCube.Move[] ALL_MOVES = RubiksCube.Move.values();
+
+    private final SplittableRandom random;
+
+    // Constructor
+    public ScrambleGenerator(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    private ScrambleGenerator(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Creates an independent generator for another thread, advancing this one.
+     *
+     * @return The new generator.
+     */
+    public ScrambleGenerator split() {
+        return new ScrambleGenerator(random.split());
+    }
+
+    /**
+     * Writes a random-move scramble as move ordinals, without allocating.
+     *
+     * @param buffer The buffer receiving one Move ordinal per byte.
+     * @param offset Index of the first move in the buffer.
+     * @param length Number of moves.
+     */
+    public void nextMoves(byte[] buffer, int offset, int length) {
+        RubiksCube.Move lastMove = null;
+        for (int i = offset; i < offset + length; i++) {
+            RubiksCube.Move[] successors = MoveGenerator.getSuccessors(lastMove);
+            lastMove = successors[random.nextInt(successors.length)];
+            buffer[i] = (byte) lastMove.ordinal();
+        }
+    }
+
+    /**
+     * Generates a random-move scramble.
+     *
+     * @param length Number of moves.
+     * @return The moves.
+     */
+    public List<RubiksCube.Move> nextScramble(int length) {
+        byte[] buffer = new byte[length];
+        nextMoves(buffer, 0, length);
+        return toMoves(buffer, 0, length);
+    }
+
+    /**
+     * Converts moves written by nextMoves back to a list.
+     *
+     * @param buffer The buffer holding one Move ordinal per byte.
+     * @param offset Index of the first move.
+     * @param length Number of moves.
+     * @return The moves.
+     */
+    public static List<RubiksCube.Move> toMoves(byte[] buffer, int offset, int length) {
+        List<RubiksCube.Move> moves = new ArrayList<>(length);
+        for (int i = offset; i < offset + length; i++) {
+            moves.add(ALL_MOVES[buffer[i]]);
+        }
+        return moves;
+    }
+
+    /**
+     * Draws a cube uniformly among all reachable states: random corner and edge permutations of equal parity,
+     * random twists adding up to a whole turn and random flips of even count.
+     *
+     * @return The cube in the drawn state.
+     */
+    public RubiksCubePacked nextRandomState() {
+        int[] cornerPermutation = new int[CubieLayout.CORNERS];
+        int[] cornerOrientation = new int[CubieLayout.CORNERS];
+        int[] edgePermutation = new int[CubieLayout.EDGES];
+        int[] edgeOrientation = new int[CubieLayout.EDGES];
+        int parity = shuffle(cornerPermutation) ^ shuffle(edgePermutation);
+        if (parity != 0) {
+            // Swapping two edges pairs every odd edge permutation with exactly one even one, so it stays uniform
+            int swap = edgePermutation[0];
+            edgePermutation[0] = edgePermutation[1];
+            edgePermutation[1] = swap;
+        }
+        int twist = 0;
+        for (int corner = 0; corner < CubieLayout.CORNERS - 1; corner++) {
+            cornerOrientation[corner] = random.nextInt(3);
+            twist += cornerOrientation[corner];
+        }
+        cornerOrientation[CubieLayout.CORNERS - 1] = (3 - twist % 3) % 3;
+        int flip = 0;
+        for (int edge = 0; edge < CubieLayout.EDGES - 1; edge++) {
+            edgeOrientation[edge] = random.nextInt(2);
+            flip ^= edgeOrientation[edge];
+        }
+        edgeOrientation[CubieLayout.EDGES - 1] = flip;
+        return new RubiksCubePacked(cornerPermutation, cornerOrientation, edgePermutation, edgeOrientation);
+    }
+
+    // Fisher-Yates shuffle of the identity, returns the parity of the permutation
+    private int shuffle(int[] permutation) {
+        int parity = 0;
+        for (int i = 0; i < permutation.length; i++) permutation[i] = i;
+        for (int i = permutation.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            if (j != i) {
+                int swap = permutation[i];
+                permutation[i] = permutation[j];
+                permutation[j] = swap;
+                parity ^= 1;
+            }
+        }
+        return parity;
+    }
+
+    /**
+     * Generates a random-state scramble: the moves that take a solved cube to a uniformly drawn state.
+     *
+     * @return The moves, at most KociembaSolver.DEFAULT_MAX_LENGTH.
+     */
+    public List<RubiksCube.Move> nextRandomStateScramble() {
+        RubiksCubePacked cube = nextRandomState();
+        List<RubiksCube.Move> solution = new KociembaSolver<>(cube).solve();
+        List<RubiksCube.Move> scramble = new ArrayList<>(solution.size());
+        for (int i = solution.size() - 1; i >= 0; i--) {
+            scramble.add(RubiksCube.getInverse(solution.get(i)));
+        }
+        return MoveSequences.simplify(scramble);
+    }
+
+    // Writes scrambles to standard output, one per line, in the notation SolverCli reads
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            System.err.println("Usage: java ScrambleGenerator <seed> <count> <length | random-state>");
+            System.exit(2);
+        }
+        ScrambleGenerator generator = new ScrambleGenerator(Long.parseLong(args[0]));
+        long count = Long.parseLong(args[1]);
+        boolean randomState = args[2].equals("random-state");
+        int length = randomState ? 0 : Integer.parseInt(args[2]);
+        for (long i = 0; i < count; i++) {
+            System.out.println(RubiksCube.formatMoves(randomState
+                    ? generator.nextRandomStateScramble() : generator.nextScramble(length)));
+        }
+    }
+}
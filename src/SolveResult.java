@@ -0,0 +1,13 @@
+import java.util.List;
+
+/**
+ * Outcome of a solve that may have been cut short by its CancellationToken.
+ *
+ * @param moves      The solution, empty when none was found.
+ * @param solved     Whether the moves solve the cube.
+ * @param cancelled  Whether the token fired before the search was done.
+ * @param lowerBound Number of moves every solution needs at least, proven by the part of the search that completed.
+ *                   For a solved result equal to its length, the solution is optimal.
+ */
+public record SolveResult(List<RubiksCube.Move> moves, boolean solved, boolean cancelled, int lowerBound) {
+}
@@ -0,0 +1,243 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Command-line runner that reads one scramble per line, e.g. {@code R U' F2} in the notation of RubiksCube.getMove,
+ * and writes one JSON object per line as soon as each solve is done:
+ * <pre>
+ * {"index":0,"scramble":"R U' F2","status":"SOLVED","solution":"F2 U R'","length":3,"millis":0.412}
+ * </pre>
+ * With --verify every result also carries {@code "verified"}, whether scramble and solution compose to the identity
+ * as checked by RubiksCubeBitboard.CompiledSequence, independently of the cube the solver turned.
+ * With --simplify solutions are passed through MoveSequences.simplify before they are written.
+ * Lines that do not parse produce {@code "status":"INVALID"} with an error message instead. Blank lines are solved
+ * as the solved cube. The input is read lazily through BatchSolver, which keeps at most --max-in-flight scrambles
+ * in memory, so files of any length can be piped through.
+ * <pre>
+ * java SolverCli [--cube 3d|1d|bitboard|packed] [--solver kociemba|iddfs|bfs|bidirectional|parallel|idastar]
+ *                [--depth N] [--threads N] [--timeout MILLIS] [--max-in-flight N] [--unordered] [--verify]
+ *                [--simplify]
+ *                [--pdb-dir DIR] [--input FILE]
+ * </pre>
+ */
+public class SolverCli {
+    private static final String USAGE = """
+            Usage: java SolverCli [options] < scrambles.txt
+              --cube 3d|1d|bitboard|packed      cube representation (default packed)
+              --solver NAME                     kociemba, iddfs, bfs, bidirectional, parallel or idastar (default kociemba)
+              --depth N                         maximum solution length (default 22 for kociemba, 20 otherwise)
+              --threads N                       solves run at once (default: available processors)
+              --timeout MILLIS                  time budget per scramble (default: none)
+              --max-in-flight N                 scrambles read ahead of the output (default 1024)
+              --unordered                       write results as they complete instead of in input order
+              --verify                          check every solution against its scramble
+              --simplify                        cancel and merge redundant turns in the solutions
+              --pdb-dir DIR                     pattern databases of idastar, generated there when missing (default .)
+              --input FILE                      read scrambles from FILE instead of standard input""";
+
+    // Line that could not be parsed, reported in place of its result
+    private record Invalid(String line, String message) {
+    }
+
+    // Parsed command line
+    private final Map<String, String> options = new HashMap<>();
+    private boolean unordered;
+    private boolean verify;
+    private boolean simplify;
+
+    // Constructor
+    private SolverCli(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--unordered" -> unordered = true;
+                case "--verify" -> verify = true;
+                case "--simplify" -> simplify = true;
+                case "--cube", "--solver", "--depth", "--threads", "--timeout", "--max-in-flight", "--pdb-dir",
+                     "--input" -> {
+                    if (i + 1 == args.length) throw new IllegalArgumentException(args[i] + " needs a value");
+                    options.put(args[i], args[++i]);
+                }
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 1 && (args[0].equals("--help") || args[0].equals("-h"))) {
+            System.out.println(USAGE);
+            return;
+        }
+        try {
+            new SolverCli(args).run();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+    }
+
+    private void run() throws IOException, InterruptedException {
+        switch (options.getOrDefault("--cube", "packed")) {
+            case "3d" -> run(RubiksCube3D::new);
+            case "1d" -> run(RubiksCube1D::new);
+            case "bitboard" -> run(RubiksCubeBitboard::new);
+            case "packed" -> run(RubiksCubePacked::new);
+            default -> throw new IllegalArgumentException("Unknown cube " + options.get("--cube"));
+        }
+    }
+
+    private <T extends RubiksCube> void run(Supplier<T> cubeFactory) throws IOException, InterruptedException {
+        String solver = options.getOrDefault("--solver", "kociemba");
+        BatchSolver.Strategy<T> solve = strategy(solver, cubeFactory);
+        BatchSolver.Strategy<T> strategy = !simplify ? solve
+                : (cube, depth) -> MoveSequences.simplify(solve.solve(cube, depth));
+        int depth = intOption("--depth", solver.equals("kociemba") ? KociembaSolver.DEFAULT_MAX_LENGTH : 20);
+        int threads = intOption("--threads", Runtime.getRuntime().availableProcessors());
+        Duration timeout = options.containsKey("--timeout") ? Duration.ofMillis(intOption("--timeout", 0)) : null;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (BufferedReader reader = openInput();
+             Writer writer = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+            BatchSolver<T> batch = new BatchSolver<>(cubeFactory, executor, depth, timeout);
+            batch.setStrategy(strategy);
+            batch.setMaxInFlight(intOption("--max-in-flight", 1024));
+            batch.setOrdered(!unordered);
+
+            // Parse errors of the lines read ahead, keyed by index; the scramble solved in their place is empty
+            Map<Long, Invalid> errors = new HashMap<>();
+            long[] lineIndex = {0};
+            // Results are written on the solving threads, so a failed write is kept here and stops the input
+            AtomicReference<IOException> writeFailure = new AtomicReference<>();
+            Stream<List<RubiksCube.Move>> scrambles = reader.lines()
+                    .takeWhile(line -> writeFailure.get() == null)
+                    .map(line -> {
+                        long index = lineIndex[0]++;
+                        try {
+                            return RubiksCube.parseMoves(line);
+                        } catch (IllegalArgumentException e) {
+                            synchronized (errors) {
+                                errors.put(index, new Invalid(line, e.getMessage()));
+                            }
+                            return List.of();
+                        }
+                    });
+            batch.solveAll(scrambles, result -> {
+                Invalid invalid;
+                synchronized (errors) {
+                    invalid = errors.remove(result.index());
+                }
+                if (writeFailure.get() != null) return;
+                try {
+                    writer.write(invalid == null ? toJson(result, verify) : toJson(result.index(), invalid));
+                    writer.write('\n');
+                    // Flushed per line so that a consumer at the other end of a pipe sees each result at once
+                    writer.flush();
+                } catch (IOException e) {
+                    writeFailure.compareAndSet(null, e);
+                }
+            });
+            if (writeFailure.get() != null) throw writeFailure.get();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private <T extends RubiksCube> BatchSolver.Strategy<T> strategy(String solver, Supplier<T> cubeFactory)
+            throws IOException {
+        return switch (solver) {
+            case "kociemba" -> (cube, depth) -> new KociembaSolver<>(cube, depth).solve();
+            case "iddfs" -> (cube, depth) -> new IDDFSSolver<T, Object>(cube, depth).solve();
+            case "bfs" -> (cube, depth) -> new BFSSolver<>(cube).solve();
+            case "bidirectional" -> (cube, depth) -> new BidirectionalBFSSolver<>(cube, cubeFactory.get()).solve();
+            case "parallel" -> (cube, depth) -> new ParallelSolver<>(cube, depth).solve();
+            case "idastar" -> idaStar();
+            default -> throw new IllegalArgumentException("Unknown solver " + solver);
+        };
+    }
+
+    // The databases are mapped once and shared by every solve
+    private <T extends RubiksCube> BatchSolver.Strategy<T> idaStar() throws IOException {
+        Path directory = Path.of(options.getOrDefault("--pdb-dir", "."));
+        CornerPatternDatabase corners = CornerPatternDatabase.loadOrGenerate(directory.resolve("corners.pdb"));
+        EdgePatternDatabase[] edges = {
+                EdgePatternDatabase.loadOrGenerate(directory.resolve("edges-first.pdb"), EdgePatternDatabase.FIRST_HALF),
+                EdgePatternDatabase.loadOrGenerate(directory.resolve("edges-second.pdb"), EdgePatternDatabase.SECOND_HALF)
+        };
+        return (cube, depth) -> new IDAStarSolver<>(cube, corners, edges, depth).solve();
+    }
+
+    private BufferedReader openInput() throws IOException {
+        String input = options.get("--input");
+        if (input == null) return new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        return Files.newBufferedReader(Path.of(input), StandardCharsets.UTF_8);
+    }
+
+    private int intOption(String name, int defaultValue) {
+        String value = options.get(name);
+        if (value == null) return defaultValue;
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed < 0 || (parsed == 0 && !name.equals("--depth"))) throw new NumberFormatException();
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " needs a positive number, got " + value);
+        }
+    }
+
+    private static String toJson(BatchSolver.Result result, boolean verify) {
+        String verified = !verify ? ""
+                : ",\"verified\":" + RubiksCubeBitboard.CompiledSequence.isSolution(result.scramble(), result.solution());
+        return "{\"index\":" + result.index()
+                + ",\"scramble\":" + quote(RubiksCube.formatMoves(result.scramble()))
+                + ",\"status\":\"" + result.status() + '"'
+                + ",\"solution\":" + quote(RubiksCube.formatMoves(result.solution()))
+                + ",\"length\":" + result.solution().size()
+                + ",\"millis\":" + String.format(Locale.ROOT, "%.3f", result.nanos() / 1e6)
+                + verified
+                + '}';
+    }
+
+    private static String toJson(long index, Invalid invalid) {
+        return "{\"index\":" + index
+                + ",\"scramble\":" + quote(invalid.line())
+                + ",\"status\":\"INVALID\""
+                + ",\"error\":" + quote(invalid.message())
+                + '}';
+    }
+
+    private static String quote(String text) {
+        StringBuilder builder = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) builder.append(String.format("\\u%04x", (int) c));
+                    else builder.append(c);
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+}
@@ -0,0 +1,277 @@
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counters describing what the solvers spend their time on: nodes generated and expanded per depth, isSolved calls,
+ * cutoffs, duplicates, moves skipped by MoveGenerator and the largest frontier and visited set of the breadth-first
+ * searches.
+ * One instance can be shared by any number of solvers and threads, see setMetrics on each solver.
+ * <p>
+ * The hot loops never touch the shared counters: each solver counts into its own Recorder, plain longs on the
+ * solving thread, and adds them to the striped LongAdders here every 65,536 nodes and at the end of every iteration.
+ * Readers therefore lag a running solve by at most that many nodes, and enabling metrics costs well under 2%.
+ * <p>
+ * Iterations of the iterative deepening solvers (and levels of the breadth-first ones) are reported to listeners,
+ * on the solving thread, with their node count and wall time. The counters can also be read over JMX after register.
+ */
+public class SolverMetrics implements SolverMetricsMXBean {
+    // Depths at or beyond this share the last bucket of the histograms
+    public static final int MAX_DEPTH = 32;
+
+    /**
+     * One iteration of a solver: the depth or bound it searched, the nodes it generated and its wall time.
+     */
+    public record Iteration(String solver, int depth, long nodesGenerated, long nanos) {
+    }
+
+    /**
+     * Receives every completed iteration, on the thread that ran it.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onIteration(Iteration iteration);
+    }
+
+    private final LongAdder[] generated = newAdders(MAX_DEPTH);
+    private final LongAdder[] expanded = newAdders(MAX_DEPTH);
+    private final LongAdder solvedChecks = new LongAdder();
+    private final LongAdder cutoffs = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder prunedMoves = new LongAdder();
+    private final LongAccumulator peakFrontier = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator peakVisited = new LongAccumulator(Math::max, 0);
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile long since = System.nanoTime();
+
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) adders[i] = new LongAdder();
+        return adders;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    void report(Iteration iteration) {
+        for (Listener listener : listeners) {
+            listener.onIteration(iteration);
+        }
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server as {@code RubiksCube:type=SolverMetrics,name=<name>}.
+     *
+     * @param name Name telling these metrics apart from other registered ones.
+     * @return The name the metrics were registered under, to unregister them.
+     * @throws JMException If the name is invalid or already taken.
+     */
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName("RubiksCube:type=SolverMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    @Override
+    public long getNodesGenerated() {
+        return sum(generated);
+    }
+
+    @Override
+    public long getNodesExpanded() {
+        return sum(expanded);
+    }
+
+    @Override
+    public long[] getNodesGeneratedPerDepth() {
+        return sums(generated);
+    }
+
+    @Override
+    public long[] getNodesExpandedPerDepth() {
+        return sums(expanded);
+    }
+
+    // Over the wall time since the metrics were created or reset, whatever the number of solving threads
+    @Override
+    public double getNodesPerSecond() {
+        long nanos = System.nanoTime() - since;
+        return nanos <= 0 ? 0 : getNodesGenerated() * 1e9 / nanos;
+    }
+
+    @Override
+    public long getSolvedChecks() {
+        return solvedChecks.sum();
+    }
+
+    // Nodes not searched because of a heuristic bound, a pruning table or a transposition table hit
+    @Override
+    public long getCutoffs() {
+        return cutoffs.sum();
+    }
+
+    // States the breadth-first searches had already visited, which are not cutoffs: nothing bounds those searches
+    @Override
+    public long getDuplicates() {
+        return duplicates.sum();
+    }
+
+    // Successors skipped by MoveGenerator as redundant move orders
+    @Override
+    public long getPrunedMoves() {
+        return prunedMoves.sum();
+    }
+
+    @Override
+    public long getPeakFrontier() {
+        return peakFrontier.get();
+    }
+
+    @Override
+    public long getPeakVisited() {
+        return peakVisited.get();
+    }
+
+    // Not atomic: counts flushed by running solvers while resetting may be kept or lost
+    @Override
+    public void reset() {
+        for (int depth = 0; depth < MAX_DEPTH; depth++) {
+            generated[depth].reset();
+            expanded[depth].reset();
+        }
+        solvedChecks.reset();
+        cutoffs.reset();
+        duplicates.reset();
+        prunedMoves.reset();
+        peakFrontier.reset();
+        peakVisited.reset();
+        since = System.nanoTime();
+    }
+
+    private static long sum(LongAdder[] adders) {
+        long sum = 0;
+        for (LongAdder adder : adders) sum += adder.sum();
+        return sum;
+    }
+
+    private static long[] sums(LongAdder[] adders) {
+        long[] sums = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) sums[i] = adders[i].sum();
+        return sums;
+    }
+
+    /**
+     * Counts of one solver on one thread, added to the shared metrics from time to time. A recorder without
+     * metrics counts all the same and drops the counts, so solvers record unconditionally.
+     */
+    public static final class Recorder {
+        private static final int FLUSH_INTERVAL = 1 << 16;
+        private static final int MOVES = RubiksCube.Move.values().length;
+
+        private final SolverMetrics metrics;
+        private final long[] generated = new long[MAX_DEPTH];
+        private final long[] expanded = new long[MAX_DEPTH];
+        private long solvedChecks;
+        private long cutoffs;
+        private long duplicates;
+        private long prunedMoves;
+        private int unflushed;
+        private long iterationNodes;
+        private long iterationStart;
+
+        // Constructor, metrics may be null to record nothing
+        public Recorder(SolverMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        public void generate(int depth) {
+            generated[Math.min(depth, MAX_DEPTH - 1)]++;
+            iterationNodes++;
+            if (++unflushed == FLUSH_INTERVAL) flush();
+        }
+
+        // A node at depth whose successors are about to be generated
+        public void expand(int depth) {
+            expanded[Math.min(depth, MAX_DEPTH - 1)]++;
+        }
+
+        // Same, for successors from MoveGenerator, which pruned the others
+        public void expand(int depth, int successors) {
+            expanded[Math.min(depth, MAX_DEPTH - 1)]++;
+            prunedMoves += MOVES - successors;
+        }
+
+        public void solvedCheck() {
+            solvedChecks++;
+        }
+
+        public void cutoff() {
+            cutoffs++;
+        }
+
+        public void duplicate() {
+            duplicates++;
+        }
+
+        // Called once per level, so it goes straight to the shared maximum
+        public void frontier(long frontier, long visited) {
+            if (metrics == null) return;
+            metrics.peakFrontier.accumulate(frontier);
+            metrics.peakVisited.accumulate(visited);
+        }
+
+        public void startIteration() {
+            iterationNodes = 0;
+            iterationStart = System.nanoTime();
+        }
+
+        // Flushes the counts and reports the iteration started last to the listeners
+        public void endIteration(String solver, int depth) {
+            flush();
+            if (metrics == null || !metrics.hasListeners()) return;
+            metrics.report(new Iteration(solver, depth, iterationNodes, System.nanoTime() - iterationStart));
+        }
+
+        // Nodes generated since startIteration
+        public long getIterationNodes() {
+            return iterationNodes;
+        }
+
+        // Adds the counts to the shared metrics and clears them
+        public void flush() {
+            unflushed = 0;
+            if (metrics == null) return;
+            for (int depth = 0; depth < MAX_DEPTH; depth++) {
+                if (generated[depth] != 0) {
+                    metrics.generated[depth].add(generated[depth]);
+                    generated[depth] = 0;
+                }
+                if (expanded[depth] != 0) {
+                    metrics.expanded[depth].add(expanded[depth]);
+                    expanded[depth] = 0;
+                }
+            }
+            metrics.solvedChecks.add(solvedChecks);
+            metrics.cutoffs.add(cutoffs);
+            metrics.duplicates.add(duplicates);
+            metrics.prunedMoves.add(prunedMoves);
+            solvedChecks = 0;
+            cutoffs = 0;
+            duplicates = 0;
+            prunedMoves = 0;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * Management interface of SolverMetrics, readable with jconsole or any JMX client once registered.
+ */
+public interface SolverMetricsMXBean {
+    long getNodesGenerated();
+
+    long getNodesExpanded();
+
+    long[] getNodesGeneratedPerDepth();
+
+    long[] getNodesExpandedPerDepth();
+
+    double getNodesPerSecond();
+
+    long getSolvedChecks();
+
+    long getCutoffs();
+
+    long getDuplicates();
+
+    long getPrunedMoves();
+
+    long getPeakFrontier();
+
+    long getPeakVisited();
+
+    void reset();
+}
@@ -0,0 +1,128 @@
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from a cube state, given by its corner and edge keys, to the move that reached it.
+ * Keys live in two primitive long arrays and the move in a byte array, so an entry costs 17 bytes per slot
+ * instead of a HashMap entry plus a full cube copy.
+ */
+public class StateTable {
+    private static final float MAX_LOAD = 0.6f;
+    private static final byte NO_MOVE = -1;
+    private static final RubiksCube.Move[] ALL_MOVES = RubiksCube.Move.values();
+
+    // A corner key of 0 would put cubie 0 at every position, so it can never be a real state
+    private static final long EMPTY = 0;
+
+    private long[] cornerKeys;
+    private long[] edgeKeys;
+    private byte[] moves;
+    private int size;
+
+    // Constructor with the default capacity
+    public StateTable() {
+        this(1 << 16);
+    }
+
+    // Constructor sized for the expected number of states
+    public StateTable(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / MAX_LOAD)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        cornerKeys = new long[capacity];
+        edgeKeys = new long[capacity];
+        moves = new byte[capacity];
+    }
+
+    private static int hash(long cornerKey, long edgeKey) {
+        long hash = cornerKey * 0x9E3779B97F4A7C15L ^ edgeKey * 0xC2B2AE3D27D4EB4FL;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    // Slot holding the state, or the empty slot where it would go
+    private int find(long cornerKey, long edgeKey) {
+        int mask = cornerKeys.length - 1;
+        int slot = hash(cornerKey, edgeKey) & mask;
+        while (cornerKeys[slot] != EMPTY && (cornerKeys[slot] != cornerKey || edgeKeys[slot] != edgeKey)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Adds a state unless it is already present.
+     *
+     * @param cornerKey The corner key of the state.
+     * @param edgeKey   The edge key of the state.
+     * @param move      The move that reached the state, or null for the start state.
+     * @return True if the state was added, false if it was already present.
+     */
+    public boolean add(long cornerKey, long edgeKey, RubiksCube.Move move) {
+        int slot = find(cornerKey, edgeKey);
+        if (cornerKeys[slot] != EMPTY) return false;
+        cornerKeys[slot] = cornerKey;
+        edgeKeys[slot] = edgeKey;
+        moves[slot] = move == null ? NO_MOVE : (byte) move.ordinal();
+        if (++size > cornerKeys.length * MAX_LOAD) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a state is present.
+     *
+     * @param cornerKey The corner key of the state.
+     * @param edgeKey   The edge key of the state.
+     * @return True if the state is present.
+     */
+    public boolean contains(long cornerKey, long edgeKey) {
+        return cornerKeys[find(cornerKey, edgeKey)] != EMPTY;
+    }
+
+    /**
+     * Gets the move that reached a state.
+     *
+     * @param cornerKey The corner key of the state.
+     * @param edgeKey   The edge key of the state.
+     * @return The move, or null for the start state or a state that is not present.
+     */
+    public RubiksCube.Move get(long cornerKey, long edgeKey) {
+        int slot = find(cornerKey, edgeKey);
+        if (cornerKeys[slot] == EMPTY || moves[slot] == NO_MOVE) return null;
+        return ALL_MOVES[moves[slot]];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the memory held by the table's arrays.
+     *
+     * @return The size in bytes.
+     */
+    public long getMemoryBytes() {
+        return (long) cornerKeys.length * (Long.BYTES * 2 + 1);
+    }
+
+    private void grow() {
+        long[] oldCornerKeys = cornerKeys;
+        long[] oldEdgeKeys = edgeKeys;
+        byte[] oldMoves = moves;
+        allocate(oldCornerKeys.length * 2);
+        for (int i = 0; i < oldCornerKeys.length; i++) {
+            if (oldCornerKeys[i] == EMPTY) continue;
+            int slot = find(oldCornerKeys[i], oldEdgeKeys[i]);
+            cornerKeys[slot] = oldCornerKeys[i];
+            edgeKeys[slot] = oldEdgeKeys[i];
+            moves[slot] = oldMoves[i];
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(cornerKeys, EMPTY);
+        size = 0;
+    }
+}
@@ -0,0 +1,23 @@
+/**
+ * Sticker cycles of the six clockwise face turns, shared by RubiksCube1D and RubiksCube3D.
+ * Stickers are numbered {@code face * 9 + row * 3 + col} with the faces stored as UP, LEFT, FRONT, RIGHT, BACK, DOWN,
+ * the same net both classes use.
+ * <p>
+ * Every turn is five 4-cycles laid out one after the other: the sticker at {@code cycles[i]} moves to
+ * {@code cycles[i + 1]}, that one to {@code cycles[i + 2]}, then to {@code cycles[i + 3]} and back to {@code cycles[i]}.
+ * A counter-clockwise turn runs the cycles backwards and a half turn swaps opposite entries,
+ * so every move is applied in place without allocating.
+ */
+final class StickerCycles {
+    static final int STICKERS = 54;
+
+    static final int[] U = {0, 2, 8, 6, 1, 5, 7, 3, 9, 36, 27, 18, 10, 37, 28, 19, 11, 38, 29, 20};
+    static final int[] L = {0, 18, 45, 44, 3, 21, 48, 41, 6, 24, 51, 38, 9, 11, 17, 15, 10, 14, 16, 12};
+    static final int[] F = {6, 27, 47, 17, 7, 30, 46, 14, 8, 33, 45, 11, 18, 20, 26, 24, 19, 23, 25, 21};
+    static final int[] R = {2, 42, 47, 20, 5, 39, 50, 23, 8, 36, 53, 26, 27, 29, 35, 33, 28, 32, 34, 30};
+    static final int[] B = {0, 15, 53, 29, 1, 12, 52, 32, 2, 9, 51, 35, 36, 38, 44, 42, 37, 41, 43, 39};
+    static final int[] D = {15, 24, 33, 42, 16, 25, 34, 43, 17, 26, 35, 44, 45, 47, 53, 51, 46, 50, 52, 48};
+
+    private StickerCycles() {
+    }
+}
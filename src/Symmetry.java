@@ -0,0 +1,288 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The 48 symmetries of the cube: 24 rotations, each with or without a reflection. Conjugating a state by a symmetry
+ * (viewing it rotated or in a mirror, with the colours renamed to match the centres) gives a state at the same
+ * distance from solved, so a search or a pattern table only needs one representative of the up to 48 states of
+ * each class.
+ * <p>
+ * Symmetry s maps a state X to conjugate(s, X). The canonical representative of X is its conjugate with the
+ * smallest (corner key, edge key). Moves follow conjugation: conjugate(s, X * m) = conjugate(s, X) * conjugate(s, m),
+ * where a move is sent to the same turn of the image face, reversed by a reflection. Symmetry 0 is the identity.
+ */
+public final class Symmetry {
+    public static final int COUNT = 48;
+    public static final int IDENTITY = 0;
+
+    /**
+     * Canonical form of a state: the keys of its canonical representative and the symmetry mapping the state to it.
+     */
+    public record Canonical(long cornerKey, long edgeKey, int symmetry) {
+    }
+
+    private static final int CORNERS = CubieLayout.CORNERS;
+    private static final int EDGES = CubieLayout.EDGES;
+    // Corner stickers are numbered position * 3 + slot, edge stickers follow from CORNER_STICKERS
+    private static final int CORNER_STICKERS = CORNERS * 3;
+    private static final int STICKERS = CORNER_STICKERS + EDGES * 2;
+
+    private static final int U = RubiksCube.Face.UP.ordinal();
+    private static final int D = RubiksCube.Face.DOWN.ordinal();
+    private static final RubiksCube.Face[] FACES = RubiksCube.Face.values();
+    // Face turned by each group of three moves, in Move order
+    private static final RubiksCube.Face[] MOVE_FACES = {
+            RubiksCube.Face.LEFT, RubiksCube.Face.RIGHT, RubiksCube.Face.FRONT,
+            RubiksCube.Face.BOTTOM, RubiksCube.Face.UP, RubiksCube.Face.DOWN
+    };
+    private static final RubiksCube.Move[] ALL_MOVES = RubiksCube.Move.values();
+
+    // Outward normal of every face, indexed by Face ordinal: x to the right, y up, z to the front
+    private static final int[][] NORMALS = new int[FACES.length][];
+
+    static {
+        NORMALS[RubiksCube.Face.FRONT.ordinal()] = new int[]{0, 0, 1};
+        NORMALS[RubiksCube.Face.BOTTOM.ordinal()] = new int[]{0, 0, -1};
+        NORMALS[RubiksCube.Face.LEFT.ordinal()] = new int[]{-1, 0, 0};
+        NORMALS[RubiksCube.Face.RIGHT.ordinal()] = new int[]{1, 0, 0};
+        NORMALS[RubiksCube.Face.UP.ordinal()] = new int[]{0, 1, 0};
+        NORMALS[RubiksCube.Face.DOWN.ordinal()] = new int[]{0, -1, 0};
+    }
+
+    // Image of each face under each symmetry
+    private static final int[][] faceMaps = new int[COUNT][FACES.length];
+    // Sticker of the original state whose colour shows at each sticker of the conjugate
+    private static final int[][] sources = new int[COUNT][STICKERS];
+    private static final boolean[] mirrors = new boolean[COUNT];
+    private static final int[] inverses = new int[COUNT];
+    static final RubiksCube.Move[][] MOVE_CONJUGATES = new RubiksCube.Move[COUNT][ALL_MOVES.length];
+
+    static {
+        buildSymmetries();
+    }
+
+    private Symmetry() {
+    }
+
+    public static boolean isMirror(int symmetry) {
+        return mirrors[symmetry];
+    }
+
+    public static int inverse(int symmetry) {
+        return inverses[symmetry];
+    }
+
+    /**
+     * Gets the move matching a move after conjugating by a symmetry.
+     *
+     * @param symmetry The symmetry.
+     * @param move     The move.
+     * @return The conjugated move.
+     */
+    public static RubiksCube.Move conjugate(int symmetry, RubiksCube.Move move) {
+        return MOVE_CONJUGATES[symmetry][move.ordinal()];
+    }
+
+    /**
+     * Computes the canonical form of a cube.
+     *
+     * @param cube The cube.
+     * @return The canonical representative and the symmetry mapping the cube to it.
+     */
+    public static Canonical canonicalize(RubiksCube cube) {
+        return canonicalize(cube.getCornerKey(), cube.getEdgeKey());
+    }
+
+    /**
+     * Computes the canonical form of a state given by its keys, see CubieLayout.getCornerKey and getEdgeKey.
+     *
+     * @param cornerKey The corner key.
+     * @param edgeKey   The edge key.
+     * @return The canonical representative and the symmetry mapping the state to it.
+     */
+    public static Canonical canonicalize(long cornerKey, long edgeKey) {
+        int[] stickers = getStickers(cornerKey, edgeKey);
+        long bestCorners = cornerKey;
+        long bestEdges = edgeKey;
+        int best = IDENTITY;
+        for (int symmetry = 1; symmetry < COUNT; symmetry++) {
+            long corners = getCornerKey(symmetry, stickers);
+            if (corners > bestCorners) continue;
+            long edges = getEdgeKey(symmetry, stickers);
+            if (corners < bestCorners || edges < bestEdges) {
+                bestCorners = corners;
+                bestEdges = edges;
+                best = symmetry;
+            }
+        }
+        return new Canonical(bestCorners, bestEdges, best);
+    }
+
+    /**
+     * Conjugates a state by a symmetry.
+     *
+     * @param symmetry  The symmetry.
+     * @param cornerKey The corner key of the state.
+     * @param edgeKey   The edge key of the state.
+     * @return The corner key and the edge key of the conjugate.
+     */
+    public static long[] conjugate(int symmetry, long cornerKey, long edgeKey) {
+        int[] stickers = getStickers(cornerKey, edgeKey);
+        return new long[]{getCornerKey(symmetry, stickers), getEdgeKey(symmetry, stickers)};
+    }
+
+    // Face of the colour shown at every corner and edge sticker
+    private static int[] getStickers(long cornerKey, long edgeKey) {
+        int[] stickers = new int[STICKERS];
+        for (int corner = 0; corner < CORNERS; corner++) {
+            int field = (int) (cornerKey >>> (5 * corner));
+            int cubie = field & 7;
+            int twist = (field >>> 3) & 3;
+            // Both lists run clockwise from the U/D sticker, which the twist locates
+            for (int slot = 0; slot < 3; slot++) {
+                stickers[corner * 3 + (twist + slot) % 3] = CubieLayout.CORNER_FACELETS[cubie][slot][0];
+            }
+        }
+        for (int edge = 0; edge < EDGES; edge++) {
+            int field = (int) (edgeKey >>> (5 * edge));
+            int cubie = field & 15;
+            int flip = (field >>> 4) & 1;
+            for (int slot = 0; slot < 2; slot++) {
+                stickers[CORNER_STICKERS + edge * 2 + (slot ^ flip)] = CubieLayout.EDGE_FACELETS[cubie][slot][0];
+            }
+        }
+        return stickers;
+    }
+
+    private static long getCornerKey(int symmetry, int[] stickers) {
+        int[] source = sources[symmetry];
+        int[] faceMap = faceMaps[symmetry];
+        long key = 0;
+        for (int corner = 0; corner < CORNERS; corner++) {
+            int mask = 0;
+            int twist = 0;
+            for (int slot = 0; slot < 3; slot++) {
+                int face = faceMap[stickers[source[corner * 3 + slot]]];
+                if (face == U || face == D) twist = slot;
+                mask |= 1 << face;
+            }
+            key |= (long) (CubieLayout.getCorner(mask) | twist << 3) << (5 * corner);
+        }
+        return key;
+    }
+
+    private static long getEdgeKey(int symmetry, int[] stickers) {
+        int[] source = sources[symmetry];
+        int[] faceMap = faceMaps[symmetry];
+        long key = 0;
+        for (int edge = 0; edge < EDGES; edge++) {
+            int first = faceMap[stickers[source[CORNER_STICKERS + edge * 2]]];
+            int second = faceMap[stickers[source[CORNER_STICKERS + edge * 2 + 1]]];
+            int cubie = CubieLayout.getEdge(1 << first | 1 << second);
+            int flip = first == CubieLayout.EDGE_FACELETS[cubie][0][0] ? 0 : 1;
+            key |= (long) (cubie | flip << 4) << (5 * edge);
+        }
+        return key;
+    }
+
+    // Every symmetry is a signed permutation matrix, acting on sticker centres placed at 2 * cubie + normal
+    private static void buildSymmetries() {
+        int[][] positions = new int[STICKERS][];
+        Map<Long, Integer> stickerAt = new HashMap<>();
+        for (int corner = 0; corner < CORNERS; corner++) {
+            addStickers(CubieLayout.CORNER_FACELETS[corner], corner * 3, positions, stickerAt);
+        }
+        for (int edge = 0; edge < EDGES; edge++) {
+            addStickers(CubieLayout.EDGE_FACELETS[edge], CORNER_STICKERS + edge * 2, positions, stickerAt);
+        }
+
+        int[][] permutations = {{0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}};
+        int[][][] matrices = new int[COUNT][][];
+        int symmetry = 0;
+        for (int[] permutation : permutations) {
+            for (int signs = 0; signs < 8; signs++) {
+                int[][] matrix = new int[3][3];
+                for (int row = 0; row < 3; row++) {
+                    matrix[row][permutation[row]] = (signs >> row & 1) == 0 ? 1 : -1;
+                }
+                matrices[symmetry++] = matrix;
+            }
+        }
+
+        for (symmetry = 0; symmetry < COUNT; symmetry++) {
+            int[][] matrix = matrices[symmetry];
+            mirrors[symmetry] = determinant(matrix) < 0;
+            for (int face = 0; face < FACES.length; face++) {
+                faceMaps[symmetry][face] = getFace(apply(matrix, NORMALS[face]));
+            }
+            for (int sticker = 0; sticker < STICKERS; sticker++) {
+                int image = stickerAt.get(encode(apply(matrix, positions[sticker])));
+                sources[symmetry][image] = sticker;
+            }
+            for (int move = 0; move < ALL_MOVES.length; move++) {
+                int face = faceMaps[symmetry][MOVE_FACES[move / 3].ordinal()];
+                int turn = move % 3;
+                // A reflection turns clockwise into counter-clockwise, half turns stay half turns
+                if (mirrors[symmetry] && turn < 2) turn = 1 - turn;
+                MOVE_CONJUGATES[symmetry][move] = ALL_MOVES[getMoveFace(face) * 3 + turn];
+            }
+        }
+        for (symmetry = 0; symmetry < COUNT; symmetry++) {
+            int[][] transpose = new int[3][3];
+            for (int row = 0; row < 3; row++) {
+                for (int col = 0; col < 3; col++) transpose[row][col] = matrices[symmetry][col][row];
+            }
+            for (int other = 0; other < COUNT; other++) {
+                if (Arrays.deepEquals(matrices[other], transpose)) inverses[symmetry] = other;
+            }
+        }
+    }
+
+    private static void addStickers(int[][] facelets, int first, int[][] positions, Map<Long, Integer> stickerAt) {
+        int[] cubie = new int[3];
+        for (int[] facelet : facelets) {
+            for (int axis = 0; axis < 3; axis++) cubie[axis] += NORMALS[facelet[0]][axis];
+        }
+        for (int slot = 0; slot < facelets.length; slot++) {
+            int[] position = new int[3];
+            for (int axis = 0; axis < 3; axis++) {
+                position[axis] = 2 * cubie[axis] + NORMALS[facelets[slot][0]][axis];
+            }
+            positions[first + slot] = position;
+            stickerAt.put(encode(position), first + slot);
+        }
+    }
+
+    private static int[] apply(int[][] matrix, int[] vector) {
+        int[] result = new int[3];
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 3; col++) result[row] += matrix[row][col] * vector[col];
+        }
+        return result;
+    }
+
+    private static int determinant(int[][] m) {
+        return m[0][0] * (m[1][1] * m[2][2] - m[1][2] * m[2][1])
+                - m[0][1] * (m[1][0] * m[2][2] - m[1][2] * m[2][0])
+                + m[0][2] * (m[1][0] * m[2][1] - m[1][1] * m[2][0]);
+    }
+
+    private static long encode(int[] position) {
+        return ((position[0] + 8L) << 16) | ((position[1] + 8L) << 8) | (position[2] + 8L);
+    }
+
+    private static int getFace(int[] normal) {
+        for (int face = 0; face < FACES.length; face++) {
+            if (Arrays.equals(NORMALS[face], normal)) return face;
+        }
+        throw new AssertionError("Not a face normal");
+    }
+
+    private static int getMoveFace(int face) {
+        for (int moveFace = 0; moveFace < MOVE_FACES.length; moveFace++) {
+            if (MOVE_FACES[moveFace].ordinal() == face) return moveFace;
+        }
+        throw new AssertionError("Not a face");
+    }
+}
@@ -0,0 +1,148 @@
+import java.util.Arrays;
+
+/**
+ * Fixed-size, lossy table remembering which positions a depth-limited search has already explored without
+ * finding a solution, and with how many moves to spare. A position reached again with no more moves left
+ * than a recorded failure cannot lead to a solution either, so the whole subtree can be skipped.
+ * <p>
+ * Every entry is one long: the upper 56 bits of the position hash as a tag and the remaining depth in the low
+ * byte. Collisions in a slot are resolved by replace-by-depth, keeping the entry that stands for the larger
+ * subtree. A tag mismatch just loses an entry; two positions sharing all 56 tag bits would be confused, which
+ * is vanishingly rare.
+ * <p>
+ * The moves a search tries after a position depend on the face of the move that led there (see MoveGenerator),
+ * so that face is part of the hash: reaching a position through another face explores a different subtree.
+ */
+public class TranspositionTable {
+    public static final long DEFAULT_MEMORY_BYTES = 256L << 20;
+
+    private static final long DEPTH_MASK = 0xFF;
+    private static final long EMPTY = 0;
+
+    private final long[] entries;
+    private final int mask;
+
+    private long lookups;
+    private long hits;
+    private long stores;
+    private long rejected;
+
+    // Constructor with the default memory budget of 256 MB
+    public TranspositionTable() {
+        this(DEFAULT_MEMORY_BYTES);
+    }
+
+    // Constructor using at most memoryBytes for the entries, rounded down to a power of two slots
+    public TranspositionTable(long memoryBytes) {
+        long slots = Math.max(1, memoryBytes / Long.BYTES);
+        int capacity = (int) Long.highestOneBit(Math.min(slots, 1 << 30));
+        this.entries = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Hashes a position together with the move that reached it.
+     *
+     * @param stateHash The state hash of the position, see RubiksCube.getStateHash.
+     * @param lastMove  The move that reached the position, or null at the root.
+     * @return The 64-bit hash.
+     */
+    public static long hash(long stateHash, RubiksCube.Move lastMove) {
+        long face = lastMove == null ? 6 : MoveGenerator.getFace(lastMove);
+        // Mixed again, so that both the slot index and the tag depend on every input bit
+        return RubiksCube.mix(stateHash ^ face * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * Hashes the current position of a cube together with the move that reached it.
+     *
+     * @param cube     The cube.
+     * @param lastMove The move that reached the position, or null at the root.
+     * @return The 64-bit hash.
+     */
+    public static long hash(RubiksCube cube, RubiksCube.Move lastMove) {
+        return hash(cube.getStateHash(), lastMove);
+    }
+
+    private static long tag(long hash) {
+        return hash & ~DEPTH_MASK;
+    }
+
+    /**
+     * Checks whether the position was already explored without a solution, with at least as many moves left.
+     *
+     * @param hash      The position hash.
+     * @param remaining The number of moves the search may still make from the position.
+     * @return True if the subtree can be skipped.
+     */
+    public boolean isExplored(long hash, int remaining) {
+        lookups++;
+        long entry = entries[(int) hash & mask];
+        if (entry != EMPTY && tag(entry) == tag(hash) && (entry & DEPTH_MASK) >= remaining) {
+            hits++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records that the position was explored without a solution.
+     * The entry already in the slot is only replaced by one standing for a subtree at least as deep.
+     *
+     * @param hash      The position hash.
+     * @param remaining The number of moves the search had left from the position.
+     */
+    public void store(long hash, int remaining) {
+        int slot = (int) hash & mask;
+        long entry = entries[slot];
+        if (entry != EMPTY && (entry & DEPTH_MASK) > remaining) {
+            rejected++;
+            return;
+        }
+        entries[slot] = tag(hash) | Math.min(remaining, DEPTH_MASK);
+        stores++;
+    }
+
+    public long getLookups() {
+        return lookups;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getStores() {
+        return stores;
+    }
+
+    // Number of stores dropped because the slot held a deeper entry
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Gets the share of lookups that allowed a subtree to be skipped.
+     *
+     * @return The hit rate, between 0 and 1.
+     */
+    public double getHitRate() {
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Gets the memory held by the entries.
+     *
+     * @return The size in bytes.
+     */
+    public long getMemoryBytes() {
+        return (long) entries.length * Long.BYTES;
+    }
+
+    public void clear() {
+        Arrays.fill(entries, EMPTY);
+        lookups = 0;
+        hits = 0;
+        stores = 0;
+        rejected = 0;
+    }
+}
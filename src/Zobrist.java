@@ -0,0 +1,56 @@
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing of sticker-based cubes: one 64-bit key per (sticker, colour), and the hash of
+ * a cube is the XOR of the keys of its 54 stickers. A move only changes the stickers on its cycles, so the
+ * hash can be kept up to date by XOR-ing out their old keys and XOR-ing in the new ones.
+ * <p>
+ * Stickers are numbered like StickerCycles and colours are given by their letter (see RubiksCube.getColorLetter).
+ */
+final class Zobrist {
+    private static final int STICKERS = StickerCycles.STICKERS;
+
+    // Indexed by the low 5 bits of the colour letter, which differ for W, B, Y, R, G and O,
+    // so a move looks its keys up without translating letters to colours first
+    private static final int LETTERS = 32;
+    private static final long[] KEYS = new long[LETTERS * STICKERS];
+
+    static {
+        // Fixed seed, so hashes are the same from one run to the next
+        SplittableRandom random = new SplittableRandom(0x5EEDC0BEL);
+        for (RubiksCube.Color color : RubiksCube.Color.values()) {
+            int letter = RubiksCube.getColorLetter(color) % LETTERS;
+            for (int sticker = 0; sticker < STICKERS; sticker++) {
+                KEYS[letter * STICKERS + sticker] = random.nextLong();
+            }
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Gets the key of a colour on a sticker.
+     *
+     * @param sticker The sticker number (0-53).
+     * @param letter  The colour letter.
+     * @return The key.
+     */
+    static long key(int sticker, char letter) {
+        return KEYS[(letter % LETTERS) * STICKERS + sticker];
+    }
+
+    /**
+     * Computes the hash of a whole cube from scratch.
+     *
+     * @param stickers The colour letters of the 54 stickers, by sticker number.
+     * @return The hash.
+     */
+    static long hash(char[] stickers) {
+        long hash = 0;
+        for (int sticker = 0; sticker < STICKERS; sticker++) {
+            hash ^= key(sticker, stickers[sticker]);
+        }
+        return hash;
+    }
+}